@@ -0,0 +1,94 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rocksdb.RocksDBException;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DBFlavorBenchmark {
+
+  static final int KEY_COUNT = 100_000;
+  static final int VALUE_SIZE = 256;
+
+  @Param({ RocksBenchmarkDB.FLAVOR_DEFAULT, RocksBenchmarkDB.FLAVOR_TTL, RocksBenchmarkDB.FLAVOR_TRAN,
+      RocksBenchmarkDB.FLAVOR_OPTIMISTIC_TRAN })
+  String flavor;
+
+  RocksBenchmarkDB db;
+  RocksManager rocksManager;
+
+  String[] keys;
+  byte[] value;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    this.db = new RocksBenchmarkDB(this.flavor);
+    this.db.load(KEY_COUNT, VALUE_SIZE);
+    this.rocksManager = this.db.getRocksManager();
+
+    this.keys = new String[KEY_COUNT];
+    for (var idx = 0; idx < KEY_COUNT; idx++) {
+      this.keys[idx] = RocksBenchmarkDB.key(idx);
+    }
+    this.value = RocksBenchmarkDB.value(VALUE_SIZE, 0);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    this.db.close();
+  }
+
+  @Benchmark
+  public byte[] get() throws RocksDBException {
+    return this.rocksManager.get(this.keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+  }
+
+  @Benchmark
+  public void put() throws RocksDBException {
+    this.rocksManager.put(this.keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)], this.value);
+  }
+}
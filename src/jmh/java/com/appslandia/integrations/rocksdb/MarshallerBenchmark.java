@@ -0,0 +1,81 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+  @Param({ "16", "256" })
+  int length;
+
+  String stringValue;
+  byte[] bytesValue;
+
+  @Setup
+  public void setup() {
+    this.stringValue = "k".repeat(this.length);
+    this.bytesValue = RocksUtils.marshal(this.stringValue);
+  }
+
+  @Benchmark
+  public byte[] marshalString() {
+    return RocksMarshaller.TYPE_STRING.marshal(this.stringValue);
+  }
+
+  @Benchmark
+  public String unmarshalString() {
+    return RocksMarshaller.TYPE_STRING.unmarshal(this.bytesValue);
+  }
+
+  @Benchmark
+  public byte[] marshalItself() {
+    return RocksMarshaller.TYPE_ITSELF.marshal(this.bytesValue);
+  }
+
+  @Benchmark
+  public byte[] unmarshalItself() {
+    return RocksMarshaller.TYPE_ITSELF.unmarshal(this.bytesValue);
+  }
+}
@@ -0,0 +1,110 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rocksdb.RocksDBException;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointOpsBenchmark {
+
+  static final int KEY_COUNT = 100_000;
+
+  @Param({ "16", "256", "4096" })
+  int valueSize;
+
+  RocksBenchmarkDB db;
+  RocksManager rocksManager;
+
+  String[] stringKeys;
+  byte[][] byteKeys;
+  byte[] value;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    this.db = new RocksBenchmarkDB(RocksBenchmarkDB.FLAVOR_DEFAULT);
+    this.db.load(KEY_COUNT, this.valueSize);
+    this.rocksManager = this.db.getRocksManager();
+
+    this.stringKeys = new String[KEY_COUNT];
+    this.byteKeys = new byte[KEY_COUNT][];
+
+    for (var idx = 0; idx < KEY_COUNT; idx++) {
+      this.stringKeys[idx] = RocksBenchmarkDB.key(idx);
+      this.byteKeys[idx] = RocksUtils.marshal(this.stringKeys[idx]);
+    }
+    this.value = RocksBenchmarkDB.value(this.valueSize, 0);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    this.db.close();
+  }
+
+  static int nextIndex() {
+    return ThreadLocalRandom.current().nextInt(KEY_COUNT);
+  }
+
+  @Benchmark
+  public byte[] getStringKey() throws RocksDBException {
+    return this.rocksManager.get(this.stringKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public byte[] getByteKey() throws RocksDBException {
+    return this.rocksManager.get(this.byteKeys[nextIndex()], null, null);
+  }
+
+  @Benchmark
+  public void putStringKey() throws RocksDBException {
+    this.rocksManager.put(this.stringKeys[nextIndex()], this.value);
+  }
+
+  @Benchmark
+  public void putByteKey() throws RocksDBException {
+    this.rocksManager.put(this.byteKeys[nextIndex()], this.value, null, null);
+  }
+}
@@ -0,0 +1,118 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.TransactionDBOptions;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksBenchmarkDB implements AutoCloseable {
+
+  public static final String FLAVOR_DEFAULT = "default";
+  public static final String FLAVOR_TTL = "ttl";
+  public static final String FLAVOR_TRAN = "tran";
+  public static final String FLAVOR_OPTIMISTIC_TRAN = "optimisticTran";
+
+  final Path dir;
+  final RocksManager rocksManager;
+
+  public RocksBenchmarkDB(String flavor) throws IOException, RocksDBException {
+    this.dir = Files.createTempDirectory("rocks-bench");
+
+    List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+    descriptors.add(RocksUtils.newCfDescriptor(RocksManager.DEFAULT_COLUMN_FAMILY, new ColumnFamilyOptions()));
+
+    var dbOptions = RocksUtils.newDBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+    var rocksCloseable = RocksUtils.newRocksCloseable().add(descriptors).add(dbOptions);
+    var dbDir = this.dir.toString();
+
+    switch (flavor) {
+    case FLAVOR_TTL:
+      this.rocksManager = RocksManager.openTtl(dbDir, dbOptions, false, descriptors, List.of(3600), rocksCloseable);
+      break;
+    case FLAVOR_TRAN:
+      var tranDbOptions = new TransactionDBOptions();
+      rocksCloseable.add(tranDbOptions);
+      this.rocksManager = RocksManager.openTran(dbDir, dbOptions, tranDbOptions, descriptors, rocksCloseable);
+      break;
+    case FLAVOR_OPTIMISTIC_TRAN:
+      this.rocksManager = RocksManager.openOptimisticTran(dbDir, dbOptions, descriptors, rocksCloseable);
+      break;
+    default:
+      this.rocksManager = RocksManager.open(dbDir, dbOptions, false, descriptors, rocksCloseable);
+      break;
+    }
+  }
+
+  public RocksManager getRocksManager() {
+    return this.rocksManager;
+  }
+
+  public static String key(int idx) {
+    return String.format("key%010d", idx);
+  }
+
+  public static byte[] value(int size, int idx) {
+    var value = new byte[size];
+    for (var i = 0; i < size; i++) {
+      value[i] = (byte) (idx + i);
+    }
+    return value;
+  }
+
+  public void load(int count, int valueSize) throws RocksDBException {
+    try (var batch = this.rocksManager.newBatch(null, 10_000, 0)) {
+      for (var idx = 0; idx < count; idx++) {
+        batch.put(key(idx), value(valueSize, idx));
+      }
+      batch.commit();
+    }
+    try (var flushOptions = new FlushOptions().setWaitForFlush(true)) {
+      this.rocksManager.flush(flushOptions);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.rocksManager.close();
+
+    try (Stream<Path> paths = Files.walk(this.dir)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
@@ -0,0 +1,151 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+
+  static final int KEY_COUNT = 100_000;
+  static final int VALUE_SIZE = 100;
+
+  @Param({ "1000", "10000" })
+  int scanLength;
+
+  RocksBenchmarkDB db;
+  RocksManager rocksManager;
+
+  String fromKey;
+  String toKey;
+  byte[] toKeyBytes;
+
+  final Function<String, Boolean> keyFilter = k -> (k.charAt(k.length() - 1) & 1) == 0;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    this.db = new RocksBenchmarkDB(RocksBenchmarkDB.FLAVOR_DEFAULT);
+    this.db.load(KEY_COUNT, VALUE_SIZE);
+    this.rocksManager = this.db.getRocksManager();
+
+    var from = (KEY_COUNT - this.scanLength) / 2;
+    this.fromKey = RocksBenchmarkDB.key(from);
+    this.toKey = RocksBenchmarkDB.key(from + this.scanLength);
+    this.toKeyBytes = RocksUtils.marshal(this.toKey);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    this.db.close();
+  }
+
+  @Benchmark
+  public void rangeScan(Blackhole bh) {
+    try (var iterator = this.rocksManager.newRangeIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_ITSELF,
+        this.fromKey, this.toKey)) {
+      while (iterator.hasNext()) {
+        bh.consume(iterator.next());
+      }
+    }
+  }
+
+  @Benchmark
+  public void rangeScanForEachEntry(Blackhole bh) throws Exception {
+    try (var iterator = this.rocksManager.newRangeIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_ITSELF,
+        this.fromKey, this.toKey)) {
+      iterator.forEachEntry(bh::consume);
+    }
+  }
+
+  @Benchmark
+  public void rangeScanForEachRaw(Blackhole bh) throws Exception {
+    try (var iterator = this.rocksManager.newRangeIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_ITSELF,
+        this.fromKey, this.toKey)) {
+      iterator.forEachRaw((key, value) -> bh.consume(key.remaining() + value.remaining()));
+    }
+  }
+
+  @Benchmark
+  public void rangeScanKeyFilter(Blackhole bh) {
+    try (var iterator = this.rocksManager.newRangeIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_ITSELF,
+        this.fromKey, this.toKey, this.keyFilter)) {
+      while (iterator.hasNext()) {
+        bh.consume(iterator.next());
+      }
+    }
+  }
+
+  @Benchmark
+  public void toKeyMatcherScan(Blackhole bh) {
+    try (var iterator = this.rocksManager.newRocksEntryIterator(RocksMarshaller.TYPE_STRING,
+        RocksMarshaller.TYPE_ITSELF, this.fromKey, k -> k.compareTo(this.toKey) >= 0)) {
+      while (iterator.hasNext()) {
+        bh.consume(iterator.next());
+      }
+    }
+  }
+
+  @Benchmark
+  public void toKeyMatcherScanKeyFilter(Blackhole bh) {
+    try (var iterator = this.rocksManager.newRocksEntryIterator(RocksMarshaller.TYPE_STRING,
+        RocksMarshaller.TYPE_ITSELF, this.fromKey, k -> k.compareTo(this.toKey) >= 0, this.keyFilter)) {
+      while (iterator.hasNext()) {
+        bh.consume(iterator.next());
+      }
+    }
+  }
+
+  @Benchmark
+  public void rangeScanByteKeys(Blackhole bh) {
+    try (var iterator = this.rocksManager.newRangeIterator(RocksMarshaller.TYPE_ITSELF, RocksMarshaller.TYPE_ITSELF,
+        RocksUtils.marshal(this.fromKey), this.toKeyBytes)) {
+      while (iterator.hasNext()) {
+        bh.consume(iterator.next());
+      }
+    }
+  }
+}
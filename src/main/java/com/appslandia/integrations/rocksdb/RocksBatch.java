@@ -0,0 +1,226 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+import com.appslandia.common.utils.ValueUtils;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksBatch implements AutoCloseable {
+
+  final RocksManager rocksManager;
+  final WriteBatch writeBatch;
+  final WriteOptions options;
+
+  final int maxCount;
+  final long maxBytes;
+  final List<CacheKey> cacheKeys = new ArrayList<>();
+
+  private int _count;
+  private long _bytes;
+  private long _commitCount;
+
+  public RocksBatch(RocksManager rocksManager, WriteOptions options, int maxCount, long maxBytes) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    Arguments.isTrue(maxCount >= 0, "maxCount is invalid.");
+    Arguments.isTrue(maxBytes >= 0, "maxBytes is invalid.");
+
+    this.writeBatch = new WriteBatch();
+    this.options = options;
+    this.maxCount = maxCount;
+    this.maxBytes = maxBytes;
+  }
+
+  public RocksBatch put(String key, byte[] value) throws RocksDBException {
+    return put(key, value, null);
+  }
+
+  public RocksBatch put(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return put(RocksUtils.marshal(key), value, columnFamilyName);
+  }
+
+  public RocksBatch put(byte[] key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.writeBatch.put(this.rocksManager.getHandle(columnFamilyName), key, value);
+    return added(columnFamilyName, key, key.length + value.length);
+  }
+
+  public RocksBatch merge(String key, byte[] value) throws RocksDBException {
+    return merge(key, value, null);
+  }
+
+  public RocksBatch merge(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return merge(RocksUtils.marshal(key), value, columnFamilyName);
+  }
+
+  public RocksBatch merge(byte[] key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.writeBatch.merge(this.rocksManager.getHandle(columnFamilyName), key, value);
+    return added(columnFamilyName, key, key.length + value.length);
+  }
+
+  public RocksBatch delete(String key) throws RocksDBException {
+    return delete(key, null);
+  }
+
+  public RocksBatch delete(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return delete(RocksUtils.marshal(key), columnFamilyName);
+  }
+
+  public RocksBatch delete(byte[] key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.writeBatch.delete(this.rocksManager.getHandle(columnFamilyName), key);
+    return added(columnFamilyName, key, key.length);
+  }
+
+  public RocksBatch deleteRange(String fromKey, String toKey) throws RocksDBException {
+    return deleteRange(fromKey, toKey, null);
+  }
+
+  public RocksBatch deleteRange(String fromKey, String toKey, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(fromKey);
+    Arguments.notNull(toKey);
+
+    return deleteRange(RocksUtils.marshal(fromKey), RocksUtils.marshal(toKey), columnFamilyName);
+  }
+
+  public RocksBatch deleteRange(byte[] fromKey, byte[] toKey, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(fromKey);
+    Arguments.notNull(toKey);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.writeBatch.deleteRange(this.rocksManager.getHandle(columnFamilyName), fromKey, toKey);
+    return added(columnFamilyName, null, fromKey.length + toKey.length);
+  }
+
+  public RocksBatch singleDelete(String key) throws RocksDBException {
+    return singleDelete(key, null);
+  }
+
+  public RocksBatch singleDelete(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return singleDelete(RocksUtils.marshal(key), columnFamilyName);
+  }
+
+  public RocksBatch singleDelete(byte[] key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.writeBatch.singleDelete(this.rocksManager.getHandle(columnFamilyName), key);
+    return added(columnFamilyName, key, key.length);
+  }
+
+  private RocksBatch added(String columnFamilyName, byte[] key, int bytes) throws RocksDBException {
+    // Copied, the caller may reuse its key array before commit
+    if (this.rocksManager.getCache(columnFamilyName) != null) {
+      this.cacheKeys.add(new CacheKey(columnFamilyName, (key != null) ? key.clone() : null));
+    }
+    this._count++;
+    this._bytes += bytes;
+
+    if ((this.maxCount > 0 && this._count >= this.maxCount) || (this.maxBytes > 0 && this._bytes >= this.maxBytes)) {
+      commit();
+    }
+    return this;
+  }
+
+  public void commit() throws RocksDBException {
+    if (this._count == 0) {
+      return;
+    }
+    this.rocksManager.doWrite(this.writeBatch, this.options);
+    this.writeBatch.clear();
+
+    for (CacheKey cacheKey : this.cacheKeys) {
+      this.rocksManager.invalidateCache(cacheKey.columnFamilyName, cacheKey.key);
+    }
+    this.cacheKeys.clear();
+
+    this._count = 0;
+    this._bytes = 0;
+    this._commitCount++;
+  }
+
+  public void clear() {
+    this.writeBatch.clear();
+    this.cacheKeys.clear();
+
+    this._count = 0;
+    this._bytes = 0;
+  }
+
+  public int getCount() {
+    return this._count;
+  }
+
+  public long getBytes() {
+    return this._bytes;
+  }
+
+  public long getCommitCount() {
+    return this._commitCount;
+  }
+
+  public WriteBatch getWriteBatch() {
+    return this.writeBatch;
+  }
+
+  @Override
+  public void close() {
+    this.writeBatch.close();
+  }
+
+  static class CacheKey {
+    final String columnFamilyName;
+    final byte[] key;
+
+    CacheKey(String columnFamilyName, byte[] key) {
+      this.columnFamilyName = columnFamilyName;
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,279 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksBulkLoader<K, V> {
+
+  public static final long DEFAULT_MAX_FILE_BYTES = 256L * 1024 * 1024;
+
+  final RocksManager rocksManager;
+  final String columnFamilyName;
+  final RocksMarshaller<K> keyMarshaller;
+  final RocksMarshaller<V> valueMarshaller;
+
+  // Should match the column family options (comparator, table format, compression)
+  final Options options;
+  final long maxFileBytes;
+  final Path tempDir;
+
+  public RocksBulkLoader(RocksManager rocksManager, String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, Options options, long maxFileBytes, Path tempDir) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.columnFamilyName = Arguments.notNull(columnFamilyName);
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.valueMarshaller = Arguments.notNull(valueMarshaller);
+    Arguments.isTrue(maxFileBytes > 0, "maxFileBytes is invalid.");
+
+    this.options = options;
+    this.maxFileBytes = maxFileBytes;
+    this.tempDir = tempDir;
+  }
+
+  public long load(Stream<RocksEntry<K, V>> entries) throws RocksDBException {
+    Arguments.notNull(entries);
+
+    try (entries) {
+      return load(List.of(entries.iterator()));
+    }
+  }
+
+  public long load(Iterator<RocksEntry<K, V>> entries) throws RocksDBException {
+    Arguments.notNull(entries);
+
+    return load(List.of(entries));
+  }
+
+  // Partitions must be sorted and must not overlap each other, they are written in parallel
+  public long load(List<? extends Iterator<RocksEntry<K, V>>> partitions) throws RocksDBException {
+    Arguments.hasElements(partitions);
+
+    var workDir = createWorkDir();
+    var resources = new RocksCloseable();
+    try {
+      var options = this.options;
+      if (options == null) {
+        options = new Options();
+        resources.add(options);
+      }
+
+      var results = writePartitions(partitions, options, workDir);
+      List<String> files = new ArrayList<>();
+      PartitionResult prev = null;
+      long count = 0;
+
+      for (PartitionResult result : results) {
+        if (result.count == 0) {
+          continue;
+        }
+        if (prev != null && Arrays.compareUnsigned(prev.lastKey, result.firstKey) >= 0) {
+          throw new IllegalArgumentException("Partitions are overlapping or out of order.");
+        }
+        files.addAll(result.files);
+        count += result.count;
+        prev = result;
+      }
+      if (files.isEmpty()) {
+        return 0;
+      }
+
+      // All files are ingested atomically
+      var ingestOptions = new IngestExternalFileOptions().setMoveFiles(true);
+      resources.add(ingestOptions);
+
+      this.rocksManager.rocksDB.ingestExternalFile(this.rocksManager.getHandle(this.columnFamilyName), files,
+          ingestOptions);
+      this.rocksManager.invalidateCache(this.columnFamilyName, null);
+      return count;
+
+    } finally {
+      resources.close();
+      deleteWorkDir(workDir);
+    }
+  }
+
+  private List<PartitionResult> writePartitions(List<? extends Iterator<RocksEntry<K, V>>> partitions,
+      Options options, Path workDir) throws RocksDBException {
+    if (partitions.size() == 1) {
+      return List.of(writePartition(0, partitions.get(0), options, workDir));
+    }
+
+    var threads = Math.min(partitions.size(), Runtime.getRuntime().availableProcessors());
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<PartitionResult>> futures = new ArrayList<>(partitions.size());
+      for (var idx = 0; idx < partitions.size(); idx++) {
+        var partition = idx;
+        futures.add(executor.submit(() -> writePartition(partition, partitions.get(partition), options, workDir)));
+      }
+
+      List<PartitionResult> results = new ArrayList<>(partitions.size());
+      for (Future<PartitionResult> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RocksDBException("Bulk load is interrupted.");
+
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RocksDBException rocksEx) {
+        throw rocksEx;
+      }
+      if (ex.getCause() instanceof RuntimeException runtimeEx) {
+        throw runtimeEx;
+      }
+      throw new RocksDBException(ex.getCause().toString());
+
+    } finally {
+      // Workers must stop before load() closes the options and deletes workDir
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+  }
+
+  static void awaitTermination(ExecutorService executor) {
+    var interrupted = false;
+    while (true) {
+      try {
+        if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+          break;
+        }
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private PartitionResult writePartition(int partition, Iterator<RocksEntry<K, V>> entries, Options options,
+      Path workDir) throws RocksDBException {
+    var result = new PartitionResult();
+    SstFileWriter writer = null;
+    long fileBytes = 0;
+
+    try (var envOptions = new EnvOptions()) {
+      while (entries.hasNext()) {
+        // Interrupted by shutdownNow() when another partition fails
+        if (Thread.currentThread().isInterrupted()) {
+          throw new RocksDBException("Bulk load is cancelled (partition=" + partition + ").");
+        }
+        var entry = entries.next();
+        var key = this.keyMarshaller.marshal(entry.key);
+        var value = this.valueMarshaller.marshal(entry.value);
+
+        if (result.lastKey != null && Arrays.compareUnsigned(result.lastKey, key) >= 0) {
+          throw new IllegalArgumentException("Keys are not in strictly ascending order (partition=" + partition + ").");
+        }
+
+        if (writer == null) {
+          var file = workDir.resolve(String.format("%05d-%05d.sst", partition, result.files.size())).toString();
+          writer = new SstFileWriter(envOptions, options);
+          writer.open(file);
+
+          result.files.add(file);
+          fileBytes = 0;
+        }
+        writer.put(key, value);
+
+        if (result.firstKey == null) {
+          result.firstKey = key;
+        }
+        result.lastKey = key;
+        result.count++;
+
+        // Split by raw key/value bytes
+        fileBytes += key.length + value.length;
+        if (fileBytes >= this.maxFileBytes) {
+          writer.finish();
+          writer.close();
+          writer = null;
+        }
+      }
+      if (writer != null) {
+        writer.finish();
+      }
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+    return result;
+  }
+
+  private Path createWorkDir() {
+    try {
+      return (this.tempDir != null) ? Files.createTempDirectory(this.tempDir, "rocks-bulk")
+          : Files.createTempDirectory("rocks-bulk");
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  static void deleteWorkDir(Path workDir) {
+    try (Stream<Path> paths = Files.walk(workDir)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException ex) {
+      // Best effort
+    }
+  }
+
+  static class PartitionResult {
+    final List<String> files = new ArrayList<>();
+    byte[] firstKey;
+    byte[] lastKey;
+    long count;
+  }
+}
@@ -0,0 +1,214 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksCache {
+
+  static final byte[] NULL_VALUE = new byte[0];
+  static final int ENTRY_OVERHEAD = 64;
+  static final int DEFAULT_SEGMENTS = 16;
+
+  final Segment[] segments;
+  final boolean cacheNulls;
+
+  final LongAdder hitCount = new LongAdder();
+  final LongAdder missCount = new LongAdder();
+  final LongAdder evictionCount = new LongAdder();
+
+  public RocksCache(long maxWeight, boolean cacheNulls) {
+    this(maxWeight, cacheNulls, DEFAULT_SEGMENTS);
+  }
+
+  public RocksCache(long maxWeight, boolean cacheNulls, int segmentCount) {
+    Arguments.isTrue(maxWeight > 0, "maxWeight is invalid.");
+    Arguments.isTrue(segmentCount > 0, "segmentCount is invalid.");
+
+    this.segments = new Segment[segmentCount];
+    for (var idx = 0; idx < segmentCount; idx++) {
+      this.segments[idx] = new Segment(Math.max(maxWeight / segmentCount, 1));
+    }
+    this.cacheNulls = cacheNulls;
+  }
+
+  // Returns null if the key is not cached, NULL_VALUE if the key is cached as missing
+  byte[] peek(byte[] key) {
+    var segment = segmentFor(key);
+    byte[] value;
+
+    synchronized (segment) {
+      value = segment.map.get(ByteBuffer.wrap(key));
+    }
+    if (value == null) {
+      this.missCount.increment();
+    } else {
+      this.hitCount.increment();
+    }
+    return value;
+  }
+
+  long stamp(byte[] key) {
+    var segment = segmentFor(key);
+    synchronized (segment) {
+      return segment.version;
+    }
+  }
+
+  void put(byte[] key, byte[] value, long stamp) {
+    if (value == null && !this.cacheNulls) {
+      return;
+    }
+    var segment = segmentFor(key);
+    var cacheKey = ByteBuffer.wrap(key.clone());
+    var cacheValue = (value != null) ? value.clone() : NULL_VALUE;
+
+    synchronized (segment) {
+      // Skip values read before a concurrent write was invalidated
+      if (segment.version != stamp) {
+        return;
+      }
+      var old = segment.map.put(cacheKey, cacheValue);
+      if (old != null) {
+        segment.weight -= weigh(cacheKey, old);
+      }
+      segment.weight += weigh(cacheKey, cacheValue);
+
+      var iterator = segment.map.entrySet().iterator();
+      while (segment.weight > segment.maxWeight && iterator.hasNext()) {
+        var eldest = iterator.next();
+        iterator.remove();
+
+        segment.weight -= weigh(eldest.getKey(), eldest.getValue());
+        this.evictionCount.increment();
+      }
+    }
+  }
+
+  public byte[] get(byte[] key) {
+    Arguments.notNull(key);
+
+    var value = peek(key);
+    return (value == null || value == NULL_VALUE) ? null : value.clone();
+  }
+
+  public boolean contains(byte[] key) {
+    Arguments.notNull(key);
+
+    var segment = segmentFor(key);
+    synchronized (segment) {
+      return segment.map.containsKey(ByteBuffer.wrap(key));
+    }
+  }
+
+  public void invalidate(byte[] key) {
+    Arguments.notNull(key);
+
+    var segment = segmentFor(key);
+    synchronized (segment) {
+      segment.version++;
+
+      var old = segment.map.remove(ByteBuffer.wrap(key));
+      if (old != null) {
+        segment.weight -= weigh(ByteBuffer.wrap(key), old);
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        segment.version++;
+        segment.map.clear();
+        segment.weight = 0;
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return this.hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return this.missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return this.evictionCount.sum();
+  }
+
+  public double getHitRatio() {
+    var hits = this.hitCount.sum();
+    var total = hits + this.missCount.sum();
+    return (total == 0) ? 0 : (double) hits / total;
+  }
+
+  public long getSize() {
+    long size = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        size += segment.map.size();
+      }
+    }
+    return size;
+  }
+
+  public long getWeight() {
+    long weight = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        weight += segment.weight;
+      }
+    }
+    return weight;
+  }
+
+  private Segment segmentFor(byte[] key) {
+    var hash = ByteBuffer.wrap(key).hashCode();
+    hash ^= (hash >>> 16);
+    return this.segments[(hash & 0x7fffffff) % this.segments.length];
+  }
+
+  static long weigh(ByteBuffer key, byte[] value) {
+    return key.capacity() + value.length + ENTRY_OVERHEAD;
+  }
+
+  static class Segment {
+    final long maxWeight;
+    final LinkedHashMap<ByteBuffer, byte[]> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    long weight;
+    long version;
+
+    Segment(long maxWeight) {
+      this.maxWeight = maxWeight;
+    }
+  }
+}
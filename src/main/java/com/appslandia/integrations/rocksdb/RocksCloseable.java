@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.RocksDB;
 
 import com.appslandia.common.utils.Arguments;
 
@@ -57,6 +58,15 @@ public class RocksCloseable implements AutoCloseable {
     return this;
   }
 
+  // Shared resource leases report the memory usage of the RocksDB they are attached to, null detaches them
+  void bindLeases(RocksDB rocksDB) {
+    for (AutoCloseable closeable : this.closeables) {
+      if (closeable instanceof RocksSharedResources.Lease lease) {
+        lease.bind(rocksDB);
+      }
+    }
+  }
+
   @Override
   public void close() {
     for (var idx = this.closeables.size() - 1; idx >= 0; idx--) {
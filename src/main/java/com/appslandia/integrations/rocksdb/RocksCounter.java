@@ -0,0 +1,108 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksCounter<K> {
+
+  // The column family must be configured with RocksUtils.useUInt64AddOperator
+
+  final RocksManager rocksManager;
+  final String columnFamilyName;
+  final RocksMarshaller<K> keyMarshaller;
+  final WriteOptions writeOptions;
+
+  public RocksCounter(RocksManager rocksManager, String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      WriteOptions writeOptions) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.columnFamilyName = Arguments.notNull(columnFamilyName);
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.writeOptions = writeOptions;
+  }
+
+  public String getColumnFamilyName() {
+    return this.columnFamilyName;
+  }
+
+  public void increment(K key) throws RocksDBException {
+    increment(key, 1);
+  }
+
+  // A negative delta decrements, uint64add wraps modulo 2^64
+  public void increment(K key, long delta) throws RocksDBException {
+    Arguments.notNull(key);
+
+    this.rocksManager.merge(this.keyMarshaller.marshal(key), RocksUtils.encodeUInt64(delta), this.columnFamilyName,
+        this.writeOptions);
+  }
+
+  public void increment(RocksBatch batch, K key, long delta) throws RocksDBException {
+    Arguments.notNull(batch);
+    Arguments.notNull(key);
+
+    batch.merge(this.keyMarshaller.marshal(key), RocksUtils.encodeUInt64(delta), this.columnFamilyName);
+  }
+
+  public long get(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    var value = this.rocksManager.get(this.keyMarshaller.marshal(key), this.columnFamilyName, null);
+    return (value != null) ? RocksUtils.decodeUInt64(value) : 0;
+  }
+
+  public List<Long> get(List<K> keys) throws RocksDBException {
+    Arguments.notNull(keys);
+
+    var values = this.rocksManager.multiGetAsList(RocksUtils.marshal(keys, this.keyMarshaller),
+        this.columnFamilyName, null);
+
+    List<Long> list = new ArrayList<>(values.size());
+    for (byte[] value : values) {
+      list.add((value != null) ? RocksUtils.decodeUInt64(value) : 0L);
+    }
+    return list;
+  }
+
+  public void set(K key, long value) throws RocksDBException {
+    Arguments.notNull(key);
+
+    this.rocksManager.put(this.keyMarshaller.marshal(key), RocksUtils.encodeUInt64(value), this.columnFamilyName,
+        this.writeOptions);
+  }
+
+  public void delete(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    this.rocksManager.delete(this.keyMarshaller.marshal(key), this.columnFamilyName, this.writeOptions);
+  }
+}
@@ -20,9 +20,11 @@
 
 package com.appslandia.integrations.rocksdb;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.function.Function;
 
+import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 
 import com.appslandia.common.utils.Arguments;
@@ -40,7 +42,17 @@ public class RocksEntryIterator<K, V> implements Iterator<RocksEntry<K, V>>, Aut
 
   final K fromKey;
   final Function<K, Boolean> toKeyMatcher;
+  final Function<byte[], Boolean> rawKeyFilter;
   final Function<K, Boolean> keyFilter;
+  final RocksCloseable resources;
+  final boolean reverse;
+  RocksOpMetrics nextMetrics;
+  Runnable onClose;
+
+  // Per iterator scratch buffers for marshallers supporting ByteBuffer
+  final RocksScratch scratch;
+  final boolean bufferedKeys;
+  final boolean bufferedValues;
 
   private boolean _firstSeek = true;
   private boolean _toKeyMatched;
@@ -49,55 +61,133 @@ public class RocksEntryIterator<K, V> implements Iterator<RocksEntry<K, V>>, Aut
   public RocksEntryIterator(RocksIterator rocksIterator, RocksMarshaller<K> keyMarshaller,
       RocksMarshaller<V> valueMarshaller, K fromKey, Function<K, Boolean> toKeyMatcher,
       Function<K, Boolean> keyFilter) {
+    this(rocksIterator, keyMarshaller, valueMarshaller, fromKey, toKeyMatcher, null, keyFilter, null);
+  }
+
+  public RocksEntryIterator(RocksIterator rocksIterator, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K fromKey, Function<K, Boolean> toKeyMatcher,
+      Function<byte[], Boolean> rawKeyFilter, Function<K, Boolean> keyFilter, RocksCloseable resources) {
+    this(rocksIterator, keyMarshaller, valueMarshaller, fromKey, toKeyMatcher, rawKeyFilter, keyFilter, resources,
+        false);
+  }
+
+  // In reverse mode fromKey is the highest key, seekForPrev positions at the last key <= fromKey
+  public RocksEntryIterator(RocksIterator rocksIterator, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K fromKey, Function<K, Boolean> toKeyMatcher,
+      Function<byte[], Boolean> rawKeyFilter, Function<K, Boolean> keyFilter, RocksCloseable resources,
+      boolean reverse) {
     this.rocksIterator = Arguments.notNull(rocksIterator);
     this.keyMarshaller = Arguments.notNull(keyMarshaller);
     this.valueMarshaller = valueMarshaller;
 
     this.fromKey = fromKey;
     this.toKeyMatcher = toKeyMatcher;
+    this.rawKeyFilter = rawKeyFilter;
     this.keyFilter = keyFilter;
+    this.resources = resources;
+    this.reverse = reverse;
+
+    this.bufferedKeys = keyMarshaller.isBufferSupported();
+    this.bufferedValues = (valueMarshaller != null) && valueMarshaller.isBufferSupported();
+    this.scratch = (this.bufferedKeys || this.bufferedValues) ? new RocksScratch() : null;
   }
 
   @Override
   public boolean hasNext() {
+    if (this.nextMetrics == null) {
+      return doHasNext();
+    }
+    var startNanos = System.nanoTime();
+    var hasNext = doHasNext();
+
+    this.nextMetrics.record(System.nanoTime() - startNanos, 0);
+    return hasNext;
+  }
+
+  private boolean doHasNext() {
     if (this._toKeyMatched) {
       return false;
     }
     if (this._firstSeek) {
-      if (this.fromKey == null) {
-        this.rocksIterator.seekToFirst();
-      } else {
-        this.rocksIterator.seek(this.keyMarshaller.marshal(this.fromKey));
-      }
+      seekFirst();
       this._firstSeek = false;
     } else {
-      this.rocksIterator.next();
+      step();
     }
 
     if (!this.rocksIterator.isValid()) {
       return false;
     }
 
-    if (this.keyFilter == null) {
-      this._key = this.keyMarshaller.unmarshal(this.rocksIterator.key());
+    if (this.rawKeyFilter == null && this.keyFilter == null) {
+      this._key = readKey();
       return true;
     }
 
     while (true) {
-      var key = this.keyMarshaller.unmarshal(this.rocksIterator.key());
-      if (!this.keyFilter.apply(key)) {
+      // rawKeyFilter runs before unmarshalling
+      if (this.rawKeyFilter == null) {
+        var key = readKey();
+
+        if (this.keyFilter == null || this.keyFilter.apply(key)) {
+          this._key = key;
+          return true;
+        }
+      } else {
+        var rawKey = this.rocksIterator.key();
 
-        this.rocksIterator.next();
-        if (!this.rocksIterator.isValid()) {
-          return false;
+        if (this.rawKeyFilter.apply(rawKey)) {
+          var key = this.keyMarshaller.unmarshal(rawKey);
+
+          if (this.keyFilter == null || this.keyFilter.apply(key)) {
+            this._key = key;
+            return true;
+          }
         }
+      }
+
+      step();
+      if (!this.rocksIterator.isValid()) {
+        return false;
+      }
+    }
+  }
+
+  private void seekFirst() {
+    if (this.fromKey == null) {
+      if (this.reverse) {
+        this.rocksIterator.seekToLast();
+      } else {
+        this.rocksIterator.seekToFirst();
+      }
+    } else if (this.reverse) {
+      if (this.bufferedKeys) {
+        this.rocksIterator.seekForPrev(this.scratch.key(this.fromKey, this.keyMarshaller));
+      } else {
+        this.rocksIterator.seekForPrev(this.keyMarshaller.marshal(this.fromKey));
+      }
+    } else {
+      if (this.bufferedKeys) {
+        this.rocksIterator.seek(this.scratch.key(this.fromKey, this.keyMarshaller));
       } else {
-        this._key = key;
-        return true;
+        this.rocksIterator.seek(this.keyMarshaller.marshal(this.fromKey));
       }
     }
   }
 
+  private void step() {
+    if (this.reverse) {
+      this.rocksIterator.prev();
+    } else {
+      this.rocksIterator.next();
+    }
+  }
+
+  // Raw key of the entry returned by the last next()
+  byte[] currentRawKey() {
+    return this.rocksIterator.key();
+  }
+
   @Override
   public RocksEntry<K, V> next() {
     Arguments.isTrue(!this._toKeyMatched);
@@ -110,12 +200,132 @@ public class RocksEntryIterator<K, V> implements Iterator<RocksEntry<K, V>>, Aut
     if (this.valueMarshaller == null) {
       return new RocksEntry<>(this._key, null);
     } else {
-      return new RocksEntry<>(this._key, this.valueMarshaller.unmarshal(this.rocksIterator.value()));
+      return new RocksEntry<>(this._key, readValue());
     }
   }
 
+  // Reuses one RocksEntry for all remaining rows, the action must not keep the entry
+  public void forEachEntry(RocksConsumer<RocksEntry<K, V>> action) throws RocksDBException {
+    Arguments.notNull(action);
+
+    var entry = new RocksEntry<K, V>(null, null);
+    while (hasNext()) {
+      if (this.toKeyMatcher != null) {
+        this._toKeyMatched = this.toKeyMatcher.apply(this._key);
+      }
+      entry.key = this._key;
+      entry.value = (this.valueMarshaller != null) ? readValue() : null;
+
+      action.accept(entry);
+    }
+  }
+
+  // Reads the remaining rows into reused direct buffers, they are only valid inside the action.
+  // Keys are unmarshalled only if keyFilter or toKeyMatcher is set
+  public void forEachRaw(RocksBufferConsumer action) throws RocksDBException {
+    Arguments.notNull(action);
+
+    if (this._toKeyMatched) {
+      return;
+    }
+    var scratch = (this.scratch != null) ? this.scratch : new RocksScratch();
+    var decodeKeys = (this.keyFilter != null) || (this.toKeyMatcher != null);
+    var startNanos = (this.nextMetrics != null) ? System.nanoTime() : 0;
+    long bytes = 0;
+
+    if (this._firstSeek) {
+      seekFirst();
+      this._firstSeek = false;
+    } else {
+      step();
+    }
+
+    try {
+      for (; this.rocksIterator.isValid(); step()) {
+        if (this.rawKeyFilter != null && !this.rawKeyFilter.apply(this.rocksIterator.key())) {
+          continue;
+        }
+        var keyBuffer = scratch.keyBuffer(RocksScratch.MIN_CAPACITY);
+        var keySize = this.rocksIterator.key(keyBuffer);
+
+        if (keySize > keyBuffer.capacity()) {
+          keyBuffer = scratch.keyBuffer(keySize);
+          this.rocksIterator.key(keyBuffer);
+        }
+
+        if (decodeKeys) {
+          var key = this.keyMarshaller.unmarshal(keyBuffer);
+          keyBuffer.position(0);
+
+          if (this.keyFilter != null && !this.keyFilter.apply(key)) {
+            continue;
+          }
+          this._toKeyMatched = (this.toKeyMatcher != null) && this.toKeyMatcher.apply(key);
+        }
+
+        ByteBuffer valueBuffer = null;
+        if (this.valueMarshaller != null) {
+          valueBuffer = scratch.valueBuffer(RocksScratch.MIN_CAPACITY);
+          var valueSize = this.rocksIterator.value(valueBuffer);
+
+          if (valueSize > valueBuffer.capacity()) {
+            valueBuffer = scratch.valueBuffer(valueSize);
+            this.rocksIterator.value(valueBuffer);
+          }
+          bytes += valueSize;
+        }
+        bytes += keySize;
+
+        action.accept(keyBuffer, valueBuffer);
+        if (this._toKeyMatched) {
+          return;
+        }
+      }
+    } finally {
+      // The whole loop is recorded as one operation
+      if (this.nextMetrics != null) {
+        this.nextMetrics.record(System.nanoTime() - startNanos, bytes);
+      }
+    }
+  }
+
+  private K readKey() {
+    if (!this.bufferedKeys) {
+      return this.keyMarshaller.unmarshal(this.rocksIterator.key());
+    }
+    var buffer = this.scratch.keyBuffer(RocksScratch.MIN_CAPACITY);
+    var size = this.rocksIterator.key(buffer);
+
+    if (size > buffer.capacity()) {
+      buffer = this.scratch.keyBuffer(size);
+      this.rocksIterator.key(buffer);
+    }
+    return this.keyMarshaller.unmarshal(buffer);
+  }
+
+  private V readValue() {
+    if (!this.bufferedValues) {
+      return this.valueMarshaller.unmarshal(this.rocksIterator.value());
+    }
+    var buffer = this.scratch.valueBuffer(RocksScratch.MIN_CAPACITY);
+    var size = this.rocksIterator.value(buffer);
+
+    if (size > buffer.capacity()) {
+      buffer = this.scratch.valueBuffer(size);
+      this.rocksIterator.value(buffer);
+    }
+    return this.valueMarshaller.unmarshal(buffer);
+  }
+
   @Override
   public void close() {
     this.rocksIterator.close();
+
+    if (this.resources != null) {
+      this.resources.close();
+    }
+    if (this.onClose != null) {
+      this.onClose.run();
+    }
   }
 }
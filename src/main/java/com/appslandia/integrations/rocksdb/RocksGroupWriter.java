@@ -0,0 +1,353 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+import com.appslandia.common.utils.ValueUtils;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksGroupWriter implements AutoCloseable {
+
+  static final System.Logger LOGGER = System.getLogger(RocksGroupWriter.class.getName());
+
+  final RocksManager rocksManager;
+  final WriteOptions options;
+  final int maxBatchSize;
+  final long maxDelayNanos;
+  final IntConsumer batchSizeListener;
+
+  // Futures are completed on this executor, or on the committer thread if null
+  // In that case dependent stages must use the *Async variants so they don't stall the committer
+  final Executor completionExecutor;
+
+  final LinkedBlockingQueue<WriteOp> queue = new LinkedBlockingQueue<>();
+  final Thread committer;
+
+  final AtomicLong commitCount = new AtomicLong();
+  final AtomicLong writeCount = new AtomicLong();
+  final AtomicLong maxCommittedBatch = new AtomicLong();
+
+  private volatile boolean _closed;
+
+  public RocksGroupWriter(RocksManager rocksManager, WriteOptions options, int maxBatchSize, long maxDelayMicros,
+      IntConsumer batchSizeListener) {
+    this(rocksManager, options, maxBatchSize, maxDelayMicros, batchSizeListener, null);
+  }
+
+  public RocksGroupWriter(RocksManager rocksManager, WriteOptions options, int maxBatchSize, long maxDelayMicros,
+      IntConsumer batchSizeListener, Executor completionExecutor) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.options = options;
+
+    Arguments.isTrue(maxBatchSize > 0, "maxBatchSize is invalid.");
+    Arguments.isTrue(maxDelayMicros >= 0, "maxDelayMicros is invalid.");
+
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+    this.batchSizeListener = batchSizeListener;
+    this.completionExecutor = completionExecutor;
+
+    this.committer = new Thread(this::runCommitter, "rocks-group-writer");
+    this.committer.setDaemon(true);
+    this.committer.start();
+  }
+
+  public CompletableFuture<Void> put(String key, byte[] value) {
+    return put(key, value, null);
+  }
+
+  public CompletableFuture<Void> put(String key, byte[] value, String columnFamilyName) {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    return submit(RocksOp.PUT, RocksUtils.marshal(key), value.clone(), columnFamilyName);
+  }
+
+  // Key and value are copied, the caller may reuse its arrays once this returns
+  public CompletableFuture<Void> put(byte[] key, byte[] value, String columnFamilyName) {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    return submit(RocksOp.PUT, key.clone(), value.clone(), columnFamilyName);
+  }
+
+  public CompletableFuture<Void> merge(String key, byte[] value) {
+    return merge(key, value, null);
+  }
+
+  public CompletableFuture<Void> merge(String key, byte[] value, String columnFamilyName) {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    return submit(RocksOp.MERGE, RocksUtils.marshal(key), value.clone(), columnFamilyName);
+  }
+
+  public CompletableFuture<Void> merge(byte[] key, byte[] value, String columnFamilyName) {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    return submit(RocksOp.MERGE, key.clone(), value.clone(), columnFamilyName);
+  }
+
+  public CompletableFuture<Void> delete(String key) {
+    return delete(key, null);
+  }
+
+  public CompletableFuture<Void> delete(String key, String columnFamilyName) {
+    Arguments.notNull(key);
+
+    return submit(RocksOp.DELETE, RocksUtils.marshal(key), null, columnFamilyName);
+  }
+
+  public CompletableFuture<Void> delete(byte[] key, String columnFamilyName) {
+    Arguments.notNull(key);
+
+    return submit(RocksOp.DELETE, key.clone(), null, columnFamilyName);
+  }
+
+  public CompletableFuture<Void> singleDelete(String key) {
+    return singleDelete(key, null);
+  }
+
+  public CompletableFuture<Void> singleDelete(String key, String columnFamilyName) {
+    Arguments.notNull(key);
+
+    return submit(RocksOp.SINGLE_DELETE, RocksUtils.marshal(key), null, columnFamilyName);
+  }
+
+  public CompletableFuture<Void> singleDelete(byte[] key, String columnFamilyName) {
+    Arguments.notNull(key);
+
+    return submit(RocksOp.SINGLE_DELETE, key.clone(), null, columnFamilyName);
+  }
+
+  private CompletableFuture<Void> submit(RocksOp type, byte[] key, byte[] value, String columnFamilyName) {
+    if (this._closed) {
+      throw new IllegalStateException("RocksGroupWriter is closed.");
+    }
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    var op = new WriteOp(type, columnFamilyName, this.rocksManager.getHandle(columnFamilyName), key, value);
+    this.queue.add(op);
+
+    // The committer may have exited between the closed check and the add
+    if (this._closed && !this.committer.isAlive() && this.queue.remove(op)) {
+      op.future.completeExceptionally(new IllegalStateException("RocksGroupWriter is closed."));
+    }
+    return op.future;
+  }
+
+  public long getCommitCount() {
+    return this.commitCount.get();
+  }
+
+  public long getWriteCount() {
+    return this.writeCount.get();
+  }
+
+  public long getMaxCommittedBatch() {
+    return this.maxCommittedBatch.get();
+  }
+
+  public double getAvgBatchSize() {
+    var commits = this.commitCount.get();
+    return (commits == 0) ? 0 : (double) this.writeCount.get() / commits;
+  }
+
+  public int getPendingCount() {
+    return this.queue.size();
+  }
+
+  private void runCommitter() {
+    List<WriteOp> ops = new ArrayList<>(this.maxBatchSize);
+
+    try (var batch = new WriteBatch()) {
+      while (true) {
+        var op = this.queue.poll(100, TimeUnit.MILLISECONDS);
+        if (op == null) {
+          if (this._closed && this.queue.isEmpty()) {
+            break;
+          }
+          continue;
+        }
+        ops.add(op);
+
+        // Take what is already queued, then wait up to maxDelay for more writers
+        this.queue.drainTo(ops, this.maxBatchSize - ops.size());
+
+        if (this.maxDelayNanos > 0) {
+          var deadline = System.nanoTime() + this.maxDelayNanos;
+
+          while (ops.size() < this.maxBatchSize) {
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              break;
+            }
+            op = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (op == null) {
+              break;
+            }
+            ops.add(op);
+            this.queue.drainTo(ops, this.maxBatchSize - ops.size());
+          }
+        }
+
+        commit(batch, ops);
+        ops.clear();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+
+    this.queue.drainTo(ops);
+    fail(ops, new IllegalStateException("RocksGroupWriter is closed."));
+  }
+
+  private void commit(WriteBatch batch, List<WriteOp> ops) {
+    try {
+      batch.clear();
+
+      for (WriteOp op : ops) {
+        switch (op.type) {
+        case PUT:
+          batch.put(op.handle, op.key, op.value);
+          break;
+        case MERGE:
+          batch.merge(op.handle, op.key, op.value);
+          break;
+        case DELETE:
+          batch.delete(op.handle, op.key);
+          break;
+        case SINGLE_DELETE:
+          batch.singleDelete(op.handle, op.key);
+          break;
+        default:
+          throw new IllegalArgumentException("type is invalid.");
+        }
+      }
+      this.rocksManager.doWrite(batch, this.options);
+
+    } catch (RocksDBException | RuntimeException ex) {
+      fail(ops, ex);
+      return;
+    }
+
+    this.commitCount.incrementAndGet();
+    this.writeCount.addAndGet(ops.size());
+    this.maxCommittedBatch.accumulateAndGet(ops.size(), Math::max);
+
+    for (WriteOp op : ops) {
+      this.rocksManager.invalidateCache(op.columnFamilyName, op.key);
+    }
+    var committed = List.copyOf(ops);
+    dispatch(() -> {
+      for (WriteOp op : committed) {
+        op.future.complete(null);
+      }
+    });
+
+    if (this.batchSizeListener != null) {
+      try {
+        this.batchSizeListener.accept(ops.size());
+
+      } catch (RuntimeException ex) {
+        LOGGER.log(Level.WARNING, "batchSizeListener failed.", ex);
+      }
+    }
+  }
+
+  private void fail(List<WriteOp> ops, Throwable ex) {
+    var failed = List.copyOf(ops);
+    dispatch(() -> {
+      for (WriteOp op : failed) {
+        op.future.completeExceptionally(ex);
+      }
+    });
+    ops.clear();
+  }
+
+  private void dispatch(Runnable completion) {
+    if (this.completionExecutor != null) {
+      try {
+        this.completionExecutor.execute(completion);
+        return;
+
+      } catch (RejectedExecutionException ex) {
+        // Executor is shut down, complete on the committer thread
+      }
+    }
+    completion.run();
+  }
+
+  @Override
+  public void close() {
+    this._closed = true;
+    try {
+      this.committer.join();
+
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    // Ops added after the committer's final drain
+    List<WriteOp> ops = new ArrayList<>();
+    this.queue.drainTo(ops);
+    fail(ops, new IllegalStateException("RocksGroupWriter is closed."));
+  }
+
+  static class WriteOp {
+    final RocksOp type;
+    final String columnFamilyName;
+    final ColumnFamilyHandle handle;
+    final byte[] key;
+    final byte[] value;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    WriteOp(RocksOp type, String columnFamilyName, ColumnFamilyHandle handle, byte[] key, byte[] value) {
+      this.type = type;
+      this.columnFamilyName = columnFamilyName;
+      this.handle = handle;
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
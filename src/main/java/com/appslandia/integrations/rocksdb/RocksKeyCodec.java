@@ -0,0 +1,142 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public abstract class RocksKeyCodec<T> implements RocksMarshaller<T> {
+
+  // Number of bytes written by write(value, dest, offset)
+  public abstract int sizeOf(T value);
+
+  // Returns the offset after the written bytes
+  public abstract int write(T value, byte[] dest, int offset);
+
+  // Returns the offset after the encoded value starting at offset, the value must end at or before limit
+  public abstract int endOf(byte[] src, int offset, int limit);
+
+  public abstract T read(byte[] src, int offset, int end);
+
+  @Override
+  public byte[] marshal(T value) {
+    var dest = new byte[sizeOf(value)];
+    write(value, dest, 0);
+    return dest;
+  }
+
+  @Override
+  public T unmarshal(byte[] value) {
+    return read(value, 0, value.length);
+  }
+
+  @Override
+  public boolean isBufferSupported() {
+    return true;
+  }
+
+  @Override
+  public void marshalTo(T value, ByteBuffer dest) {
+    if (dest.hasArray()) {
+      var end = write(value, dest.array(), dest.arrayOffset() + dest.position());
+      dest.position(end - dest.arrayOffset());
+    } else {
+      var bytes = RocksScratch.get().bytes(sizeOf(value));
+      dest.put(bytes, 0, write(value, bytes, 0));
+    }
+  }
+
+  @Override
+  public T unmarshal(ByteBuffer value) {
+    var length = value.remaining();
+
+    if (value.hasArray()) {
+      var offset = value.arrayOffset() + value.position();
+      value.position(value.limit());
+      return read(value.array(), offset, offset + length);
+    }
+    var bytes = RocksScratch.get().bytes(length);
+    value.get(bytes, 0, length);
+    return read(bytes, 0, length);
+  }
+
+  static void writeInt(int value, byte[] dest, int offset) {
+    dest[offset] = (byte) (value >>> 24);
+    dest[offset + 1] = (byte) (value >>> 16);
+    dest[offset + 2] = (byte) (value >>> 8);
+    dest[offset + 3] = (byte) value;
+  }
+
+  static int readInt(byte[] src, int offset) {
+    return ((src[offset] & 0xff) << 24) | ((src[offset + 1] & 0xff) << 16) | ((src[offset + 2] & 0xff) << 8)
+        | (src[offset + 3] & 0xff);
+  }
+
+  static void writeLong(long value, byte[] dest, int offset) {
+    writeInt((int) (value >>> 32), dest, offset);
+    writeInt((int) value, dest, offset + 4);
+  }
+
+  static long readLong(byte[] src, int offset) {
+    return ((long) readInt(src, offset) << 32) | (readInt(src, offset + 4) & 0xffffffffL);
+  }
+
+  static void checkLength(byte[] src, int offset, int end, int length) {
+    if (end - offset != length) {
+      throw new IllegalArgumentException("Invalid encoded length: " + (end - offset) + ", expected " + length + ".");
+    }
+  }
+
+  public abstract static class FixedCodec<T> extends RocksKeyCodec<T> {
+
+    final int length;
+
+    protected FixedCodec(int length) {
+      this.length = length;
+    }
+
+    @Override
+    public int sizeOf(T value) {
+      return this.length;
+    }
+
+    @Override
+    public int endOf(byte[] src, int offset, int limit) {
+      if (limit - offset < this.length) {
+        throw new IllegalArgumentException(
+            "Invalid encoded length: " + (limit - offset) + ", expected " + this.length + ".");
+      }
+      return offset + this.length;
+    }
+
+    @Override
+    public T read(byte[] src, int offset, int end) {
+      checkLength(src, offset, end, this.length);
+      return read(src, offset);
+    }
+
+    protected abstract T read(byte[] src, int offset);
+  }
+}
@@ -0,0 +1,345 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksKeyCodecs {
+
+  // Byte order of the encoded keys matches the natural order of the values
+
+  public static final RocksKeyCodec<Integer> TYPE_INT = new RocksKeyCodec.FixedCodec<>(4) {
+
+    @Override
+    public int write(Integer value, byte[] dest, int offset) {
+      RocksKeyCodec.writeInt(value ^ Integer.MIN_VALUE, dest, offset);
+      return offset + 4;
+    }
+
+    @Override
+    protected Integer read(byte[] src, int offset) {
+      return RocksKeyCodec.readInt(src, offset) ^ Integer.MIN_VALUE;
+    }
+  };
+
+  // Orders as Integer.compareUnsigned
+  public static final RocksKeyCodec<Integer> TYPE_UINT = new RocksKeyCodec.FixedCodec<>(4) {
+
+    @Override
+    public int write(Integer value, byte[] dest, int offset) {
+      RocksKeyCodec.writeInt(value, dest, offset);
+      return offset + 4;
+    }
+
+    @Override
+    protected Integer read(byte[] src, int offset) {
+      return RocksKeyCodec.readInt(src, offset);
+    }
+  };
+
+  public static final RocksKeyCodec<Long> TYPE_LONG = new RocksKeyCodec.FixedCodec<>(8) {
+
+    @Override
+    public int write(Long value, byte[] dest, int offset) {
+      RocksKeyCodec.writeLong(value ^ Long.MIN_VALUE, dest, offset);
+      return offset + 8;
+    }
+
+    @Override
+    protected Long read(byte[] src, int offset) {
+      return RocksKeyCodec.readLong(src, offset) ^ Long.MIN_VALUE;
+    }
+  };
+
+  // Orders as Long.compareUnsigned
+  public static final RocksKeyCodec<Long> TYPE_ULONG = new RocksKeyCodec.FixedCodec<>(8) {
+
+    @Override
+    public int write(Long value, byte[] dest, int offset) {
+      RocksKeyCodec.writeLong(value, dest, offset);
+      return offset + 8;
+    }
+
+    @Override
+    protected Long read(byte[] src, int offset) {
+      return RocksKeyCodec.readLong(src, offset);
+    }
+  };
+
+  // Orders as Double.compare: -Infinity < ... < -0.0 < 0.0 < ... < Infinity < NaN
+  // Double.doubleToLongBits canonicalises NaN, raw negative-sign NaNs would otherwise sort before -Infinity
+  public static final RocksKeyCodec<Double> TYPE_DOUBLE = new RocksKeyCodec.FixedCodec<>(8) {
+
+    @Override
+    public int write(Double value, byte[] dest, int offset) {
+      var bits = Double.doubleToLongBits(value);
+      RocksKeyCodec.writeLong(bits ^ ((bits >> 63) | Long.MIN_VALUE), dest, offset);
+      return offset + 8;
+    }
+
+    @Override
+    protected Double read(byte[] src, int offset) {
+      var bits = RocksKeyCodec.readLong(src, offset);
+      return Double.longBitsToDouble(bits ^ ((~bits >> 63) | Long.MIN_VALUE));
+    }
+  };
+
+  // Orders by the unsigned 128-bit value, the order of the canonical string form
+  public static final RocksKeyCodec<UUID> TYPE_UUID = new RocksKeyCodec.FixedCodec<>(16) {
+
+    @Override
+    public int write(UUID value, byte[] dest, int offset) {
+      RocksKeyCodec.writeLong(value.getMostSignificantBits(), dest, offset);
+      RocksKeyCodec.writeLong(value.getLeastSignificantBits(), dest, offset + 8);
+      return offset + 16;
+    }
+
+    @Override
+    protected UUID read(byte[] src, int offset) {
+      return new UUID(RocksKeyCodec.readLong(src, offset), RocksKeyCodec.readLong(src, offset + 8));
+    }
+  };
+
+  public static final RocksKeyCodec<Instant> TYPE_INSTANT = new RocksKeyCodec.FixedCodec<>(12) {
+
+    @Override
+    public int write(Instant value, byte[] dest, int offset) {
+      RocksKeyCodec.writeLong(value.getEpochSecond() ^ Long.MIN_VALUE, dest, offset);
+      RocksKeyCodec.writeInt(value.getNano(), dest, offset + 8);
+      return offset + 12;
+    }
+
+    @Override
+    protected Instant read(byte[] src, int offset) {
+      return Instant.ofEpochSecond(RocksKeyCodec.readLong(src, offset) ^ Long.MIN_VALUE,
+          RocksKeyCodec.readInt(src, offset + 8));
+    }
+  };
+
+  // 0x00 is escaped as 0x00 0xFF and the value is terminated by 0x00 0x01,
+  // so the encoding is self-delimiting and a shorter value sorts first in a tuple
+  public static final RocksKeyCodec<byte[]> TYPE_BYTES = new EscapedCodec<>() {
+
+    @Override
+    int rawSizeOf(byte[] value) {
+      return value.length;
+    }
+
+    @Override
+    int writeRaw(byte[] value, byte[] dest, int offset) {
+      return writeEscaped(value, 0, value.length, dest, offset);
+    }
+
+    @Override
+    int escapeCount(byte[] value) {
+      return zeroCount(value, 0, value.length);
+    }
+
+    @Override
+    byte[] newValue(byte[] src, int offset, int length) {
+      var value = new byte[length];
+      System.arraycopy(src, offset, value, 0, length);
+      return value;
+    }
+  };
+
+  // UTF-8, escaped and terminated as TYPE_BYTES. Orders by UTF-8 bytes, i.e. code points, not UTF-16 chars
+  // Named apart from RocksMarshaller.TYPE_STRING, whose plain UTF-8 is not self-delimiting in a tuple
+  public static final RocksKeyCodec<String> ORDERED_STRING = new EscapedCodec<>() {
+
+    @Override
+    int rawSizeOf(String value) {
+      return RocksUtils.utf8Length(value);
+    }
+
+    @Override
+    int writeRaw(String value, byte[] dest, int offset) {
+      return RocksUtils.writeUtf8(value, dest, offset, true);
+    }
+
+    @Override
+    int escapeCount(String value) {
+      var count = 0;
+      for (var idx = 0; idx < value.length(); idx++) {
+        if (value.charAt(idx) == 0) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    String newValue(byte[] src, int offset, int length) {
+      return new String(src, offset, length, StandardCharsets.UTF_8);
+    }
+  };
+
+  public static RocksKeyCodec<Object[]> tuple(RocksKeyCodec<?>... components) {
+    return new TupleCodec(components);
+  }
+
+  static class TupleCodec extends RocksKeyCodec<Object[]> {
+
+    final RocksKeyCodec<?>[] components;
+
+    TupleCodec(RocksKeyCodec<?>[] components) {
+      Arguments.isTrue(components.length > 0, "components is required.");
+      this.components = components.clone();
+    }
+
+    // A value may have fewer components than the codec to encode a prefix for range and prefix scans
+    @SuppressWarnings("unchecked")
+    @Override
+    public int sizeOf(Object[] value) {
+      Arguments.isTrue(value.length <= this.components.length, "value has too many components.");
+      var size = 0;
+
+      for (var idx = 0; idx < value.length; idx++) {
+        size += ((RocksKeyCodec<Object>) this.components[idx]).sizeOf(Arguments.notNull(value[idx]));
+      }
+      return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int write(Object[] value, byte[] dest, int offset) {
+      for (var idx = 0; idx < value.length; idx++) {
+        offset = ((RocksKeyCodec<Object>) this.components[idx]).write(value[idx], dest, offset);
+      }
+      return offset;
+    }
+
+    @Override
+    public int endOf(byte[] src, int offset, int limit) {
+      for (RocksKeyCodec<?> component : this.components) {
+        offset = component.endOf(src, offset, limit);
+      }
+      return offset;
+    }
+
+    @Override
+    public Object[] read(byte[] src, int offset, int end) {
+      var value = new Object[this.components.length];
+
+      for (var idx = 0; idx < this.components.length; idx++) {
+        var componentEnd = this.components[idx].endOf(src, offset, end);
+        value[idx] = this.components[idx].read(src, offset, componentEnd);
+        offset = componentEnd;
+      }
+      checkLength(src, offset, end, 0);
+      return value;
+    }
+  }
+
+  abstract static class EscapedCodec<T> extends RocksKeyCodec<T> {
+
+    static final byte ESCAPE = 0x00;
+    static final byte ESCAPED_ZERO = (byte) 0xFF;
+    static final byte TERMINATOR = 0x01;
+
+    abstract int rawSizeOf(T value);
+
+    abstract int writeRaw(T value, byte[] dest, int offset);
+
+    abstract int escapeCount(T value);
+
+    abstract T newValue(byte[] src, int offset, int length);
+
+    @Override
+    public int sizeOf(T value) {
+      return rawSizeOf(value) + escapeCount(value) + 2;
+    }
+
+    @Override
+    public int write(T value, byte[] dest, int offset) {
+      offset = writeRaw(value, dest, offset);
+      dest[offset] = ESCAPE;
+      dest[offset + 1] = TERMINATOR;
+      return offset + 2;
+    }
+
+    @Override
+    public int endOf(byte[] src, int offset, int limit) {
+      while (offset < limit - 1) {
+        if (src[offset] == ESCAPE) {
+          if (src[offset + 1] == TERMINATOR) {
+            return offset + 2;
+          }
+          offset += 2;
+        } else {
+          offset++;
+        }
+      }
+      throw new IllegalArgumentException("Unterminated escaped value.");
+    }
+
+    @Override
+    public T read(byte[] src, int offset, int end) {
+      var rawEnd = end - 2;
+      if (rawEnd < offset || src[rawEnd] != ESCAPE || src[rawEnd + 1] != TERMINATOR) {
+        throw new IllegalArgumentException("Unterminated escaped value.");
+      }
+      var zeros = zeroCount(src, offset, rawEnd);
+      if (zeros == 0) {
+        return newValue(src, offset, rawEnd - offset);
+      }
+
+      var raw = new byte[rawEnd - offset - zeros];
+      var pos = 0;
+      for (var idx = offset; idx < rawEnd; idx++) {
+        raw[pos++] = src[idx];
+        if (src[idx] == ESCAPE) {
+          idx++;
+        }
+      }
+      return newValue(raw, 0, raw.length);
+    }
+
+    static int zeroCount(byte[] src, int offset, int end) {
+      var count = 0;
+      for (var idx = offset; idx < end; idx++) {
+        if (src[idx] == 0) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    static int writeEscaped(byte[] src, int offset, int end, byte[] dest, int destOffset) {
+      for (var idx = offset; idx < end; idx++) {
+        dest[destOffset++] = src[idx];
+        if (src[idx] == ESCAPE) {
+          dest[destOffset++] = ESCAPED_ZERO;
+        }
+      }
+      return destOffset;
+    }
+  }
+}
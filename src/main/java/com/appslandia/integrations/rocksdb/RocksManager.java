@@ -20,26 +20,45 @@
 
 package com.appslandia.integrations.rocksdb;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.FlushOptions;
 import org.rocksdb.Holder;
 import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
 import org.rocksdb.TtlDB;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 import com.appslandia.common.utils.Arguments;
@@ -58,23 +77,107 @@ public class RocksManager implements AutoCloseable {
 
   public final static String DEFAULT_COLUMN_FAMILY = RocksUtils.unmarshal(RocksDB.DEFAULT_COLUMN_FAMILY);
 
+  public static final int DEFAULT_STREAM_PARTITIONS = Runtime.getRuntime().availableProcessors() * 4;
+
   final RocksDB rocksDB;
   final Map<String, ColumnFamilyHandle> handleMap;
+
+  // Shared with the tables bound to the handle, set when the column family is dropped
+  final Map<String, AtomicBoolean> droppedMap;
+
+  // Guards creating and dropping column families, held while a handle must stay open
+  final Object cfLock = new Object();
   final RocksCloseable rocksCloseable;
+  final ReadOptions readOptions = new ReadOptions();
+  final WriteOptions writeOptions = new WriteOptions();
+  final Map<String, RocksCache> cacheMap = new ConcurrentHashMap<>();
+  volatile RocksMetrics metrics;
+  final Set<RocksReadView> readViews = ConcurrentHashMap.newKeySet();
+  final Set<RocksStatsSampler> statsSamplers = ConcurrentHashMap.newKeySet();
+
+  // Options of the column families created by createColumnFamily
+  final Map<String, ColumnFamilyOptions> cfOptionsMap = new ConcurrentHashMap<>();
 
   private RocksManager(RocksDB rocksDB, List<ColumnFamilyHandle> handles, RocksCloseable rocksCloseable) {
     this.rocksDB = Arguments.notNull(rocksDB);
     Arguments.hasElements(handles);
 
-    this.handleMap = Collections
-        .unmodifiableMap(handles.stream().collect(Collectors.toMap(RocksUtils::getCfHandleName, h -> h)));
+    // Column families can be created and dropped at runtime
+    this.handleMap = new ConcurrentHashMap<>(
+        handles.stream().collect(Collectors.toMap(RocksUtils::getCfHandleName, h -> h)));
+    this.droppedMap = new ConcurrentHashMap<>(
+        handles.stream().collect(Collectors.toMap(RocksUtils::getCfHandleName, h -> new AtomicBoolean())));
     this.rocksCloseable = Arguments.notNull(rocksCloseable);
+    rocksCloseable.bindLeases(rocksDB);
   }
 
   public RocksDB getRocksDB() {
     return this.rocksDB;
   }
 
+  public Set<String> getColumnFamilyNames() {
+    return Collections.unmodifiableSet(this.handleMap.keySet());
+  }
+
+  public boolean hasColumnFamily(String columnFamilyName) {
+    return this.handleMap.containsKey(columnFamilyName);
+  }
+
+  // The options are owned by the column family, closed when it is dropped or with this RocksManager
+  public void createColumnFamily(String columnFamilyName, ColumnFamilyOptions options) throws RocksDBException {
+    Arguments.notNull(columnFamilyName);
+    Arguments.notNull(options);
+
+    synchronized (this.cfLock) {
+      Arguments.isTrue(!this.handleMap.containsKey(columnFamilyName), "columnFamilyName already exists.");
+
+      var handle = this.rocksDB.createColumnFamily(RocksUtils.newCfDescriptor(columnFamilyName, options));
+      this.cfOptionsMap.put(columnFamilyName, options);
+      this.droppedMap.put(columnFamilyName, new AtomicBoolean());
+      this.handleMap.put(columnFamilyName, handle);
+    }
+  }
+
+  // The handle is closed, so the column family must be quiescent: no RocksTable, RocksGroupWriter, iterator
+  // or batch may use it concurrently. Tables of a dropped column family fail with IllegalStateException
+  public void dropColumnFamily(String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(columnFamilyName);
+    Arguments.isTrue(!DEFAULT_COLUMN_FAMILY.equals(columnFamilyName), "default column family can't be dropped.");
+
+    synchronized (this.cfLock) {
+      var handle = getHandle(columnFamilyName);
+      this.rocksDB.dropColumnFamily(handle);
+
+      // Tables see the flag before the handle is closed
+      this.droppedMap.remove(columnFamilyName).set(true);
+      this.handleMap.remove(columnFamilyName);
+      this.cacheMap.remove(columnFamilyName);
+
+      var metrics = this.metrics;
+      if (metrics != null) {
+        metrics.remove(columnFamilyName);
+      }
+      for (RocksStatsSampler sampler : this.statsSamplers) {
+        sampler.remove(columnFamilyName);
+      }
+      handle.close();
+
+      // Options of column families opened with the database stay with rocksCloseable, they may be shared
+      var options = this.cfOptionsMap.remove(columnFamilyName);
+      if (options != null) {
+        options.close();
+      }
+    }
+  }
+
+  // The flag of the given handle, a handle that is no longer bound to the name is treated as dropped
+  AtomicBoolean getDroppedFlag(String name, ColumnFamilyHandle handle) {
+    synchronized (this.cfLock) {
+      var dropped = this.droppedMap.get(name);
+      return (dropped != null && this.handleMap.get(name) == handle) ? dropped : new AtomicBoolean(true);
+    }
+  }
+
   // -------------------- RocksDB -------------------- //
 
   public void put(String key, byte[] value) throws RocksDBException {
@@ -96,12 +199,34 @@ public class RocksManager implements AutoCloseable {
     Arguments.notNull(key);
     Arguments.notNull(value);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
 
     if (options == null) {
       this.rocksDB.put(getHandle(columnFamilyName), key, value);
     } else {
       this.rocksDB.put(getHandle(columnFamilyName), options, key, value);
     }
+    invalidateCache(columnFamilyName, key);
+    record(columnFamilyName, RocksOp.PUT, startNanos, key.length + value.length);
+  }
+
+  public void put(ByteBuffer key, ByteBuffer value) throws RocksDBException {
+    put(key, value, null, null);
+  }
+
+  public void put(ByteBuffer key, ByteBuffer value, String columnFamilyName, WriteOptions options)
+      throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    var cacheKey = cacheKey(columnFamilyName, key);
+    var bytes = key.remaining() + value.remaining();
+    var startNanos = startNanos();
+
+    this.rocksDB.put(getHandle(columnFamilyName), (options != null) ? options : this.writeOptions, key, value);
+    invalidateCache(columnFamilyName, cacheKey);
+    record(columnFamilyName, RocksOp.PUT, startNanos, bytes);
   }
 
   public byte[] get(String key) throws RocksDBException {
@@ -121,14 +246,194 @@ public class RocksManager implements AutoCloseable {
   public byte[] get(byte[] key, String columnFamilyName, ReadOptions options) throws RocksDBException {
     Arguments.notNull(key);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
+
+    var value = doGet(key, columnFamilyName, options);
+    record(columnFamilyName, RocksOp.GET, startNanos, key.length + ((value != null) ? value.length : 0));
+    return value;
+  }
 
+  private byte[] doGet(byte[] key, String columnFamilyName, ReadOptions options) throws RocksDBException {
     if (options == null) {
-      return this.rocksDB.get(getHandle(columnFamilyName), key);
+      var cache = getCache(columnFamilyName);
+      if (cache == null) {
+        return this.rocksDB.get(getHandle(columnFamilyName), key);
+      }
+
+      var value = cache.peek(key);
+      if (value != null) {
+        return (value == RocksCache.NULL_VALUE) ? null : value.clone();
+      }
+      var stamp = cache.stamp(key);
+      value = this.rocksDB.get(getHandle(columnFamilyName), key);
+
+      cache.put(key, value, stamp);
+      return value;
     } else {
       return this.rocksDB.get(getHandle(columnFamilyName), options, key);
     }
   }
 
+  public int get(byte[] key, byte[] value) throws RocksDBException {
+    return get(key, value, null, null);
+  }
+
+  public int get(byte[] key, byte[] value, String columnFamilyName, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
+
+    var length = this.rocksDB.get(getHandle(columnFamilyName), (options != null) ? options : this.readOptions, key,
+        value);
+    record(columnFamilyName, RocksOp.GET, startNanos, key.length + Math.max(length, 0));
+    return length;
+  }
+
+  public int get(ByteBuffer key, ByteBuffer value) throws RocksDBException {
+    return get(key, value, null, null);
+  }
+
+  public int get(ByteBuffer key, ByteBuffer value, String columnFamilyName, ReadOptions options)
+      throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var keyBytes = key.remaining();
+    var startNanos = startNanos();
+
+    var length = this.rocksDB.get(getHandle(columnFamilyName), (options != null) ? options : this.readOptions, key,
+        value);
+    record(columnFamilyName, RocksOp.GET, startNanos, keyBytes + Math.max(length, 0));
+    return length;
+  }
+
+  public List<byte[]> multiGet(List<String> keys) throws RocksDBException {
+    return multiGet(keys, (String) null, null);
+  }
+
+  public List<byte[]> multiGet(List<String> keys, String columnFamilyName) throws RocksDBException {
+    return multiGet(keys, columnFamilyName, null);
+  }
+
+  public List<byte[]> multiGet(List<String> keys, String columnFamilyName, ReadOptions options)
+      throws RocksDBException {
+    Arguments.notNull(keys);
+
+    return multiGetAsList(RocksUtils.marshal(keys), columnFamilyName, options);
+  }
+
+  public List<byte[]> multiGet(List<String> keys, List<String> columnFamilyNames, ReadOptions options)
+      throws RocksDBException {
+    Arguments.notNull(keys);
+
+    return multiGetAsList(RocksUtils.marshal(keys), columnFamilyNames, options);
+  }
+
+  public List<byte[]> multiGetAsList(List<byte[]> keys, String columnFamilyName, ReadOptions options)
+      throws RocksDBException {
+    Arguments.notNull(keys);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    var handles = Collections.nCopies(keys.size(), getHandle(columnFamilyName));
+    var startNanos = startNanos();
+
+    var values = (options == null) ? this.rocksDB.multiGetAsList(handles, keys)
+        : this.rocksDB.multiGetAsList(options, handles, keys);
+    record(columnFamilyName, RocksOp.MULTI_GET, startNanos, RocksUtils.sizeOf(keys) + RocksUtils.sizeOf(values));
+    return values;
+  }
+
+  public List<byte[]> multiGetAsList(List<byte[]> keys, List<String> columnFamilyNames, ReadOptions options)
+      throws RocksDBException {
+    Arguments.notNull(keys);
+    Arguments.notNull(columnFamilyNames);
+    Arguments.isTrue(keys.size() == columnFamilyNames.size(), "keys and columnFamilyNames must have the same size.");
+
+    List<ColumnFamilyHandle> handles = new ArrayList<>(columnFamilyNames.size());
+    for (String columnFamilyName : columnFamilyNames) {
+      handles.add(getHandle(ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY)));
+    }
+    var startNanos = startNanos();
+
+    var values = (options == null) ? this.rocksDB.multiGetAsList(handles, keys)
+        : this.rocksDB.multiGetAsList(options, handles, keys);
+    record(MIXED_COLUMN_FAMILIES, RocksOp.MULTI_GET, startNanos, RocksUtils.sizeOf(keys) + RocksUtils.sizeOf(values));
+    return values;
+  }
+
+  public <K, V> List<V> multiGet(List<K> keys, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(keys);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var values = multiGetAsList(RocksUtils.marshal(keys, keyMarshaller), columnFamilyName, options);
+    return RocksUtils.unmarshal(values, valueMarshaller);
+  }
+
+  public <K, V> List<V> multiGet(List<K> keys, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      List<String> columnFamilyNames, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(keys);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var values = multiGetAsList(RocksUtils.marshal(keys, keyMarshaller), columnFamilyNames, options);
+    return RocksUtils.unmarshal(values, valueMarshaller);
+  }
+
+  public <K, V> V get(K key, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    if (keyMarshaller.isBufferSupported() && RocksScratch.isPooled()
+        && (options != null || getCache(columnFamilyName) == null)) {
+      var scratch = RocksScratch.get();
+      var keyBuffer = scratch.key(key, keyMarshaller);
+      var keySize = keyBuffer.remaining();
+      var startNanos = startNanos();
+
+      var valueBuffer = scratch.get(this.rocksDB, getHandle(columnFamilyName),
+          (options != null) ? options : this.readOptions, keyBuffer);
+      record(columnFamilyName, RocksOp.GET, startNanos,
+          keySize + ((valueBuffer != null) ? valueBuffer.remaining() : 0));
+      return (valueBuffer != null) ? valueMarshaller.unmarshal(valueBuffer) : null;
+    }
+
+    var value = get(keyMarshaller.marshal(key), columnFamilyName, options);
+    return (value != null) ? valueMarshaller.unmarshal(value) : null;
+  }
+
+  public <K, V> void put(K key, V value, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, WriteOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    if (keyMarshaller.isBufferSupported() && valueMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      var scratch = RocksScratch.get();
+      put(scratch.key(key, keyMarshaller), scratch.value(value, valueMarshaller), columnFamilyName, options);
+    } else {
+      put(keyMarshaller.marshal(key), valueMarshaller.marshal(value), columnFamilyName, options);
+    }
+  }
+
+  public <K> void delete(K key, RocksMarshaller<K> keyMarshaller, String columnFamilyName, WriteOptions options)
+      throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+
+    if (keyMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      delete(RocksScratch.get().key(key, keyMarshaller), columnFamilyName, options);
+    } else {
+      delete(keyMarshaller.marshal(key), columnFamilyName, options);
+    }
+  }
+
   public boolean keyExists(String key) throws RocksDBException {
     return keyExists(key, null, null);
   }
@@ -155,6 +460,13 @@ public class RocksManager implements AutoCloseable {
     }
   }
 
+  public boolean keyExists(ByteBuffer key, String columnFamilyName, ReadOptions options) {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    return this.rocksDB.keyExists(getHandle(columnFamilyName), (options != null) ? options : this.readOptions, key);
+  }
+
   public boolean keyMayExist(String key) throws RocksDBException {
     return keyMayExist(key, null, null, null);
   }
@@ -205,12 +517,30 @@ public class RocksManager implements AutoCloseable {
     Arguments.notNull(key);
     Arguments.notNull(value);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
 
     if (options == null) {
       this.rocksDB.merge(getHandle(columnFamilyName), key, value);
     } else {
       this.rocksDB.merge(getHandle(columnFamilyName), options, key, value);
     }
+    invalidateCache(columnFamilyName, key);
+    record(columnFamilyName, RocksOp.MERGE, startNanos, key.length + value.length);
+  }
+
+  public void merge(ByteBuffer key, ByteBuffer value, String columnFamilyName, WriteOptions options)
+      throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    var cacheKey = cacheKey(columnFamilyName, key);
+    var bytes = key.remaining() + value.remaining();
+    var startNanos = startNanos();
+
+    this.rocksDB.merge(getHandle(columnFamilyName), (options != null) ? options : this.writeOptions, key, value);
+    invalidateCache(columnFamilyName, cacheKey);
+    record(columnFamilyName, RocksOp.MERGE, startNanos, bytes);
   }
 
   public void delete(String key) throws RocksDBException {
@@ -230,12 +560,28 @@ public class RocksManager implements AutoCloseable {
   public void delete(byte[] key, String columnFamilyName, WriteOptions options) throws RocksDBException {
     Arguments.notNull(key);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
 
     if (options == null) {
       this.rocksDB.delete(getHandle(columnFamilyName), key);
     } else {
       this.rocksDB.delete(getHandle(columnFamilyName), options, key);
     }
+    invalidateCache(columnFamilyName, key);
+    record(columnFamilyName, RocksOp.DELETE, startNanos, key.length);
+  }
+
+  public void delete(ByteBuffer key, String columnFamilyName, WriteOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    var cacheKey = cacheKey(columnFamilyName, key);
+    var bytes = key.remaining();
+    var startNanos = startNanos();
+
+    this.rocksDB.delete(getHandle(columnFamilyName), (options != null) ? options : this.writeOptions, key);
+    invalidateCache(columnFamilyName, cacheKey);
+    record(columnFamilyName, RocksOp.DELETE, startNanos, bytes);
   }
 
   public void deleteRange(String fromKey, String toKey) throws RocksDBException {
@@ -259,12 +605,15 @@ public class RocksManager implements AutoCloseable {
     Arguments.notNull(fromKey);
     Arguments.notNull(toKey);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
 
     if (options == null) {
       this.rocksDB.deleteRange(getHandle(columnFamilyName), fromKey, toKey);
     } else {
       this.rocksDB.deleteRange(getHandle(columnFamilyName), options, fromKey, toKey);
     }
+    invalidateCache(columnFamilyName, null);
+    record(columnFamilyName, RocksOp.DELETE_RANGE, startNanos, fromKey.length + toKey.length);
   }
 
   public void singleDelete(String key) throws RocksDBException {
@@ -286,12 +635,15 @@ public class RocksManager implements AutoCloseable {
   public void singleDelete(byte[] key, String columnFamilyName, WriteOptions options) throws RocksDBException {
     Arguments.notNull(key);
     columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    var startNanos = startNanos();
 
     if (options == null) {
       this.rocksDB.singleDelete(getHandle(columnFamilyName), key);
     } else {
       this.rocksDB.singleDelete(getHandle(columnFamilyName), options, key);
     }
+    invalidateCache(columnFamilyName, key);
+    record(columnFamilyName, RocksOp.SINGLE_DELETE, startNanos, key.length);
   }
 
   public <K, V> RocksEntryIterator<K, V> newRocksKeyIterator(RocksMarshaller<K> keyMarshaller) {
@@ -343,8 +695,221 @@ public class RocksManager implements AutoCloseable {
       String columnFamilyName, ReadOptions options) {
     Arguments.notNull(keyMarshaller);
 
-    return new RocksEntryIterator<>(newRocksIterator(columnFamilyName, options), keyMarshaller, valueMarshaller,
-        fromKey, toKeyMatcher, keyFilter);
+    return newRocksEntryIterator(keyMarshaller, valueMarshaller, fromKey, toKeyMatcher, null, keyFilter,
+        columnFamilyName, options);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRocksEntryIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K fromKey, Function<K, Boolean> toKeyMatcher,
+      Function<byte[], Boolean> rawKeyFilter, Function<K, Boolean> keyFilter, String columnFamilyName,
+      ReadOptions options) {
+    Arguments.notNull(keyMarshaller);
+
+    return withMetrics(new RocksEntryIterator<>(newRocksIterator(columnFamilyName, options), keyMarshaller,
+        valueMarshaller, fromKey, toKeyMatcher, rawKeyFilter, keyFilter, null), columnFamilyName);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, null, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, Function<K, Boolean> keyFilter) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, keyFilter, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, Function<K, Boolean> keyFilter,
+      String columnFamilyName, ReadOptions options) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, null, keyFilter, columnFamilyName,
+        options);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, Function<byte[], Boolean> rawKeyFilter,
+      Function<K, Boolean> keyFilter, String columnFamilyName, ReadOptions options) {
+    Arguments.notNull(keyMarshaller);
+
+    // lowerKey is inclusive, upperKey is exclusive
+    return newBoundedIterator(keyMarshaller, valueMarshaller,
+        (lowerKey != null) ? keyMarshaller.marshal(lowerKey) : null,
+        (upperKey != null) ? keyMarshaller.marshal(upperKey) : null, rawKeyFilter, keyFilter, columnFamilyName,
+        options, false);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newReverseRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey) {
+    return newReverseRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, null, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newReverseRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, Function<K, Boolean> keyFilter,
+      String columnFamilyName, ReadOptions options) {
+    Arguments.notNull(keyMarshaller);
+
+    // Descending from the last key below upperKey down to lowerKey
+    return newBoundedIterator(keyMarshaller, valueMarshaller,
+        (lowerKey != null) ? keyMarshaller.marshal(lowerKey) : null,
+        (upperKey != null) ? keyMarshaller.marshal(upperKey) : null, null, keyFilter, columnFamilyName, options, true);
+  }
+
+  private <K, V> RocksEntryIterator<K, V> newBoundedIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, byte[] lowerKey, byte[] upperKey, Function<byte[], Boolean> rawKeyFilter,
+      Function<K, Boolean> keyFilter, String columnFamilyName, ReadOptions options, boolean reverse) {
+    var resources = new RocksCloseable();
+    try {
+      var readOptions = newBoundedReadOptions(lowerKey, upperKey, options, resources);
+
+      return withMetrics(new RocksEntryIterator<>(newRocksIterator(columnFamilyName, readOptions), keyMarshaller,
+          valueMarshaller, null, null, rawKeyFilter, keyFilter, resources, reverse), columnFamilyName);
+
+    } catch (RuntimeException ex) {
+      resources.close();
+      throw ex;
+    }
+  }
+
+  public <K, V> RocksPage<K, V> getPage(RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      K lowerKey, K upperKey, String pageToken, int pageSize) {
+    return getPage(keyMarshaller, valueMarshaller, lowerKey, upperKey, pageToken, pageSize, false, null, null, null);
+  }
+
+  public <K, V> RocksPage<K, V> getPage(RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      K lowerKey, K upperKey, String pageToken, int pageSize, boolean reverse, Function<K, Boolean> keyFilter,
+      String columnFamilyName, ReadOptions options) {
+    Arguments.notNull(keyMarshaller);
+    Arguments.isTrue(pageSize > 0, "pageSize is invalid.");
+
+    var lowerBytes = (lowerKey != null) ? keyMarshaller.marshal(lowerKey) : null;
+    var upperBytes = (upperKey != null) ? keyMarshaller.marshal(upperKey) : null;
+
+    // Resume right after the last key of the previous page, within the original range
+    if (pageToken != null) {
+      var lastKey = RocksPage.decodeToken(pageToken);
+      if (reverse) {
+        if (upperBytes == null || Arrays.compareUnsigned(lastKey, upperBytes) < 0) {
+          upperBytes = lastKey;
+        }
+      } else {
+        // lastKey + 0x00 is the smallest key after lastKey
+        var nextKey = Arrays.copyOf(lastKey, lastKey.length + 1);
+        if (lowerBytes == null || Arrays.compareUnsigned(nextKey, lowerBytes) > 0) {
+          lowerBytes = nextKey;
+        }
+      }
+    }
+
+    List<RocksEntry<K, V>> entries = new ArrayList<>();
+    try (var iterator = newBoundedIterator(keyMarshaller, valueMarshaller, lowerBytes, upperBytes, null, keyFilter,
+        columnFamilyName, options, reverse)) {
+
+      byte[] lastKey = null;
+      while (entries.size() < pageSize && iterator.hasNext()) {
+        entries.add(iterator.next());
+
+        if (entries.size() == pageSize) {
+          lastKey = iterator.currentRawKey();
+        }
+      }
+      var nextToken = (lastKey != null && iterator.hasNext()) ? RocksPage.encodeToken(lastKey) : null;
+      return new RocksPage<>(entries, nextToken);
+    }
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix) {
+    return newPrefixIterator(keyMarshaller, valueMarshaller, prefix, null, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix, String columnFamilyName) {
+    return newPrefixIterator(keyMarshaller, valueMarshaller, prefix, null, columnFamilyName, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix, Function<K, Boolean> keyFilter, String columnFamilyName,
+      ReadOptions options) {
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(prefix);
+
+    var resources = new RocksCloseable();
+    try {
+      // The bounds alone keep the scan inside the prefix, auto_prefix_mode uses the prefix bloom only when the
+      // extractor gives the same result as a total order seek, e.g. not for prefixes shorter than the extractor
+      var prefixBytes = keyMarshaller.marshal(prefix);
+      var readOptions = newBoundedReadOptions(prefixBytes, RocksUtils.nextPrefix(prefixBytes), options, resources);
+      readOptions.setPrefixSameAsStart(false).setTotalOrderSeek(false).setAutoPrefixMode(true);
+
+      return withMetrics(new RocksEntryIterator<>(newRocksIterator(columnFamilyName, readOptions), keyMarshaller,
+          valueMarshaller, prefix, null, null, keyFilter, resources), columnFamilyName);
+
+    } catch (RuntimeException ex) {
+      resources.close();
+      throw ex;
+    }
+  }
+
+  static ReadOptions newBoundedReadOptions(byte[] lowerKey, byte[] upperKey, ReadOptions options,
+      RocksCloseable resources) {
+    // Slices must outlive the ReadOptions and the iterator
+    Slice lowerBound = null;
+    if (lowerKey != null) {
+      lowerBound = new Slice(lowerKey);
+      resources.add(lowerBound);
+    }
+    Slice upperBound = null;
+    if (upperKey != null) {
+      upperBound = new Slice(upperKey);
+      resources.add(upperBound);
+    }
+
+    var readOptions = (options != null) ? new ReadOptions(options) : new ReadOptions();
+    resources.add(readOptions);
+
+    if (lowerBound != null) {
+      readOptions.setIterateLowerBound(lowerBound);
+    }
+    if (upperBound != null) {
+      readOptions.setIterateUpperBound(upperBound);
+    }
+    return readOptions;
+  }
+
+  // The stream holds a snapshot and must be closed (try-with-resources, as with Files.lines)
+  // unless fully consumed: the snapshot is also released once every partition is exhausted
+  public <K, V> Stream<RocksEntry<K, V>> stream(RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller) {
+    return stream(keyMarshaller, valueMarshaller, null, DEFAULT_STREAM_PARTITIONS);
+  }
+
+  // The stream holds a snapshot and must be closed (try-with-resources, as with Files.lines)
+  // unless fully consumed: the snapshot is also released once every partition is exhausted
+  public <K, V> Stream<RocksEntry<K, V>> stream(RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, int partitions) {
+    Arguments.notNull(keyMarshaller);
+    Arguments.isTrue(partitions > 0, "partitions is invalid.");
+    var cfName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    var splitKeys = RocksUtils.getSplitKeys(this.rocksDB.getLiveFilesMetaData(), cfName, partitions);
+
+    // All sub-range iterators read from one snapshot
+    var snapshot = this.rocksDB.getSnapshot();
+    var readOptions = new ReadOptions().setSnapshot(snapshot);
+
+    var released = new AtomicBoolean();
+    Runnable release = () -> {
+      if (released.compareAndSet(false, true)) {
+        readOptions.close();
+        this.rocksDB.releaseSnapshot(snapshot);
+      }
+    };
+
+    var spliterator = new RocksSpliterator<>(this, keyMarshaller, valueMarshaller, cfName, readOptions, splitKeys,
+        release);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      spliterator.closeIterators();
+      release.run();
+    });
   }
 
   public RocksIterator newRocksIterator() {
@@ -405,6 +970,268 @@ public class RocksManager implements AutoCloseable {
     return this.rocksDB.getLongProperty(getHandle(columnFamilyName), property);
   }
 
+  // -------------------- RocksCache -------------------- //
+
+  public RocksCache enableCache(String columnFamilyName, long maxWeight, boolean cacheNulls) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    getHandle(columnFamilyName);
+
+    return this.cacheMap.computeIfAbsent(columnFamilyName, n -> new RocksCache(maxWeight, cacheNulls));
+  }
+
+  public void disableCache(String columnFamilyName) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    this.cacheMap.remove(columnFamilyName);
+  }
+
+  public RocksCache getCache(String columnFamilyName) {
+    if (this.cacheMap.isEmpty()) {
+      return null;
+    }
+    return this.cacheMap.get(ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY));
+  }
+
+  // key == null invalidates the whole column family cache
+  void invalidateCache(String columnFamilyName, byte[] key) {
+    var cache = getCache(columnFamilyName);
+    if (cache != null) {
+      if (key != null) {
+        cache.invalidate(key);
+      } else {
+        cache.invalidateAll();
+      }
+    }
+  }
+
+  byte[] cacheKey(String columnFamilyName, ByteBuffer key) {
+    if (getCache(columnFamilyName) == null) {
+      return null;
+    }
+    var bytes = new byte[key.remaining()];
+    key.duplicate().get(bytes);
+    return bytes;
+  }
+
+  // -------------------- RocksMetrics -------------------- //
+
+  public static final String MIXED_COLUMN_FAMILIES = "*";
+
+  public synchronized RocksMetrics enableMetrics() {
+    if (this.metrics == null) {
+      this.metrics = new RocksMetrics();
+    }
+    return this.metrics;
+  }
+
+  public RocksMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  long startNanos() {
+    return (this.metrics != null) ? System.nanoTime() : 0;
+  }
+
+  void record(String columnFamilyName, RocksOp op, long startNanos, long bytes) {
+    var metrics = this.metrics;
+    if (metrics != null && startNanos != 0) {
+      metrics.record(ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY), op, startNanos, bytes);
+    }
+  }
+
+  <K, V> RocksEntryIterator<K, V> withMetrics(RocksEntryIterator<K, V> iterator, String columnFamilyName) {
+    var metrics = this.metrics;
+    if (metrics != null) {
+      iterator.nextMetrics = metrics.get(ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY),
+          RocksOp.ITERATOR_NEXT);
+    }
+    return iterator;
+  }
+
+  // -------------------- RocksReadView -------------------- //
+
+  public RocksReadView newReadView() {
+    var readView = new RocksReadView(this);
+    this.readViews.add(readView);
+    return readView;
+  }
+
+  public <R> R withSnapshot(RocksFunction<RocksReadView, R> function) throws RocksDBException {
+    Arguments.notNull(function);
+
+    try (var readView = newReadView()) {
+      return function.apply(readView);
+    }
+  }
+
+  void releaseReadView(RocksReadView readView) {
+    if (this.readViews.remove(readView)) {
+      this.rocksDB.releaseSnapshot(readView.snapshot);
+      record(MIXED_COLUMN_FAMILIES, RocksOp.SNAPSHOT, readView.openNanos, 0);
+    }
+  }
+
+  public int getOpenSnapshotCount() {
+    return this.readViews.size();
+  }
+
+  // Long-held snapshots keep obsolete versions from being dropped by compaction
+  public long getOldestSnapshotAgeNanos() {
+    long oldest = 0;
+    for (RocksReadView readView : this.readViews) {
+      oldest = Math.max(oldest, readView.getAgeNanos());
+    }
+    return oldest;
+  }
+
+  // -------------------- RocksStats -------------------- //
+
+  public RocksStats getStats(String columnFamilyName, Statistics statistics) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    return RocksStats.sample(this.rocksDB, columnFamilyName, getHandle(columnFamilyName), statistics);
+  }
+
+  public RocksMemoryUsage getMemoryUsage() {
+    return RocksMemoryUsage.sample(this.rocksDB);
+  }
+
+  public RocksStatsSampler newStatsSampler(Statistics statistics, long intervalMillis) {
+    return newStatsSampler(statistics, intervalMillis, null);
+  }
+
+  // Samplers are stopped before the database is closed
+  public RocksStatsSampler newStatsSampler(Statistics statistics, long intervalMillis,
+      Consumer<RocksStats> listener) {
+    var sampler = new RocksStatsSampler(this, statistics, intervalMillis, listener);
+    this.statsSamplers.add(sampler);
+    return sampler.start();
+  }
+
+  // -------------------- RocksBulkLoader -------------------- //
+
+  public <K, V> RocksBulkLoader<K, V> newBulkLoader(String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller) {
+    return newBulkLoader(columnFamilyName, keyMarshaller, valueMarshaller, null,
+        RocksBulkLoader.DEFAULT_MAX_FILE_BYTES, null);
+  }
+
+  public <K, V> RocksBulkLoader<K, V> newBulkLoader(String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, Options options, long maxFileBytes, Path tempDir) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    getHandle(columnFamilyName);
+
+    return new RocksBulkLoader<>(this, columnFamilyName, keyMarshaller, valueMarshaller, options, maxFileBytes,
+        tempDir);
+  }
+
+  // -------------------- RocksTable -------------------- //
+
+  public <K, V> RocksTable<K, V> table(String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller) {
+    return table(columnFamilyName, keyMarshaller, valueMarshaller, null, null);
+  }
+
+  public <K, V> RocksTable<K, V> table(String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, ReadOptions readOptions, WriteOptions writeOptions) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+
+    return new RocksTable<>(this, columnFamilyName, getHandle(columnFamilyName), keyMarshaller,
+        valueMarshaller, ValueUtils.valueOrAlt(readOptions, this.readOptions),
+        ValueUtils.valueOrAlt(writeOptions, this.writeOptions));
+  }
+
+  // -------------------- RocksTimeTable -------------------- //
+
+  public <K, V> RocksTimeTable<K, V> timeTable(String tableName, Duration window, int retention,
+      RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller) {
+    return timeTable(tableName, window, retention, keyMarshaller, valueMarshaller, null, null);
+  }
+
+  public <K, V> RocksTimeTable<K, V> timeTable(String tableName, Duration window, int retention,
+      RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      Supplier<ColumnFamilyOptions> optionsFactory, WriteOptions writeOptions) {
+    return new RocksTimeTable<>(this, tableName, window, retention, keyMarshaller, valueMarshaller,
+        ValueUtils.valueOrAlt(optionsFactory, ColumnFamilyOptions::new), writeOptions, Clock.systemUTC());
+  }
+
+  // -------------------- RocksCounter -------------------- //
+
+  public <K> RocksCounter<K> counter(String columnFamilyName, RocksMarshaller<K> keyMarshaller) {
+    return counter(columnFamilyName, keyMarshaller, null);
+  }
+
+  public <K> RocksCounter<K> counter(String columnFamilyName, RocksMarshaller<K> keyMarshaller,
+      WriteOptions writeOptions) {
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, DEFAULT_COLUMN_FAMILY);
+    getHandle(columnFamilyName);
+
+    return new RocksCounter<>(this, columnFamilyName, keyMarshaller, writeOptions);
+  }
+
+  // -------------------- WriteBatch -------------------- //
+
+  public void write(WriteBatch batch) throws RocksDBException {
+    write(batch, null);
+  }
+
+  // The keys of a raw batch are unknown, so all column family caches are cleared
+  public void write(WriteBatch batch, WriteOptions options) throws RocksDBException {
+    doWrite(batch, options);
+
+    for (RocksCache cache : this.cacheMap.values()) {
+      cache.invalidateAll();
+    }
+  }
+
+  // Callers invalidate the cached keys they wrote
+  void doWrite(WriteBatch batch, WriteOptions options) throws RocksDBException {
+    Arguments.notNull(batch);
+    var startNanos = startNanos();
+
+    this.rocksDB.write((options != null) ? options : this.writeOptions, batch);
+    record(MIXED_COLUMN_FAMILIES, RocksOp.WRITE_BATCH, startNanos, (startNanos != 0) ? batch.getDataSize() : 0);
+  }
+
+  public RocksBatch newBatch() {
+    return newBatch(null, 0, 0);
+  }
+
+  public RocksBatch newBatch(WriteOptions options) {
+    return newBatch(options, 0, 0);
+  }
+
+  public RocksBatch newBatch(WriteOptions options, int maxCount, long maxBytes) {
+    return new RocksBatch(this, options, maxCount, maxBytes);
+  }
+
+  public void writeBatch(RocksConsumer<RocksBatch> writer) throws RocksDBException {
+    writeBatch(writer, null);
+  }
+
+  public void writeBatch(RocksConsumer<RocksBatch> writer, WriteOptions options) throws RocksDBException {
+    Arguments.notNull(writer);
+
+    try (var batch = newBatch(options)) {
+      writer.accept(batch);
+      batch.commit();
+    }
+  }
+
+  public RocksGroupWriter newGroupWriter(WriteOptions options, int maxBatchSize, long maxDelayMicros) {
+    return newGroupWriter(options, maxBatchSize, maxDelayMicros, null);
+  }
+
+  public RocksGroupWriter newGroupWriter(WriteOptions options, int maxBatchSize, long maxDelayMicros,
+      IntConsumer batchSizeListener) {
+    return new RocksGroupWriter(this, options, maxBatchSize, maxDelayMicros, batchSizeListener);
+  }
+
+  public RocksGroupWriter newGroupWriter(WriteOptions options, int maxBatchSize, long maxDelayMicros,
+      IntConsumer batchSizeListener, Executor completionExecutor) {
+    return new RocksGroupWriter(this, options, maxBatchSize, maxDelayMicros, batchSizeListener, completionExecutor);
+  }
+
   // -------------------- Extended DB -------------------- //
 
   public TtlDB getTtlDB() {
@@ -428,9 +1255,19 @@ public class RocksManager implements AutoCloseable {
     return (OptimisticTransactionDB) this.rocksDB;
   }
 
+  public RocksTranExecutor newTranExecutor() {
+    return newTranExecutor(null, RocksTranExecutor.DEFAULT_MAX_RETRIES, RocksTranExecutor.DEFAULT_MIN_BACKOFF_MICROS,
+        RocksTranExecutor.DEFAULT_MAX_BACKOFF_MICROS);
+  }
+
+  public RocksTranExecutor newTranExecutor(WriteOptions options, int maxRetries, long minBackoffMicros,
+      long maxBackoffMicros) {
+    return new RocksTranExecutor(this, options, maxRetries, minBackoffMicros, maxBackoffMicros);
+  }
+
   // -------------------- Others -------------------- //
 
-  private ColumnFamilyHandle getHandle(String name) {
+  ColumnFamilyHandle getHandle(String name) {
     var handle = this.handleMap.get(name);
     if (handle == null) {
       throw new IllegalArgumentException("handle is not found: " + name);
@@ -440,11 +1277,36 @@ public class RocksManager implements AutoCloseable {
 
   @Override
   public void close() {
+    // Shared resources must stop sampling this database before it is closed
+    this.rocksCloseable.bindLeases(null);
+
+    for (RocksStatsSampler sampler : this.statsSamplers) {
+      sampler.close();
+    }
+    for (RocksReadView readView : this.readViews) {
+      readView.close();
+    }
+    for (AtomicBoolean dropped : this.droppedMap.values()) {
+      dropped.set(true);
+    }
+    this.droppedMap.clear();
+
     for (ColumnFamilyHandle handle : this.handleMap.values()) {
       RocksUtils.closeQuietly(handle);
     }
+    this.handleMap.clear();
     // this.rocksDB.close();
     RocksUtils.closeQuietly(this.rocksDB);
+    if (this.metrics != null) {
+      this.metrics.unregisterMBean();
+    }
+    RocksUtils.closeQuietly(this.readOptions);
+    RocksUtils.closeQuietly(this.writeOptions);
+
+    for (ColumnFamilyOptions options : this.cfOptionsMap.values()) {
+      RocksUtils.closeQuietly(options);
+    }
+    this.cfOptionsMap.clear();
     this.rocksCloseable.close();
   }
 
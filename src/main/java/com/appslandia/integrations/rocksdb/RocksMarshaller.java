@@ -20,6 +20,9 @@
 
 package com.appslandia.integrations.rocksdb;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  *
  * @author Loc Ha
@@ -31,6 +34,27 @@ public interface RocksMarshaller<T> {
 
   T unmarshal(byte[] value);
 
+  // Marshallers returning true are marshalled into reusable scratch buffers by sizeOf and marshalTo
+  default boolean isBufferSupported() {
+    return false;
+  }
+
+  default int sizeOf(T value) {
+    return marshal(value).length;
+  }
+
+  // Writes sizeOf(value) bytes at the position of dest and advances it
+  default void marshalTo(T value, ByteBuffer dest) {
+    dest.put(marshal(value));
+  }
+
+  // Reads the remaining bytes of value and advances its position
+  default T unmarshal(ByteBuffer value) {
+    var bytes = new byte[value.remaining()];
+    value.get(bytes);
+    return unmarshal(bytes);
+  }
+
   public static final RocksMarshaller<String> TYPE_STRING = new RocksMarshaller<>() {
 
     @Override
@@ -42,6 +66,44 @@ public interface RocksMarshaller<T> {
     public String unmarshal(byte[] value) {
       return RocksUtils.unmarshal(value);
     }
+
+    @Override
+    public boolean isBufferSupported() {
+      return true;
+    }
+
+    @Override
+    public int sizeOf(String value) {
+      return RocksUtils.utf8Length(value);
+    }
+
+    @Override
+    public void marshalTo(String value, ByteBuffer dest) {
+      var length = RocksUtils.utf8Length(value);
+
+      if (dest.hasArray()) {
+        RocksUtils.writeUtf8(value, dest.array(), dest.arrayOffset() + dest.position(), false);
+        dest.position(dest.position() + length);
+      } else {
+        var bytes = RocksScratch.get().bytes(length);
+        RocksUtils.writeUtf8(value, bytes, 0, false);
+        dest.put(bytes, 0, length);
+      }
+    }
+
+    @Override
+    public String unmarshal(ByteBuffer value) {
+      var length = value.remaining();
+
+      if (value.hasArray()) {
+        var str = new String(value.array(), value.arrayOffset() + value.position(), length, StandardCharsets.UTF_8);
+        value.position(value.limit());
+        return str;
+      }
+      var bytes = RocksScratch.get().bytes(length);
+      value.get(bytes, 0, length);
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
   };
 
   public static final RocksMarshaller<byte[]> TYPE_ITSELF = new RocksMarshaller<>() {
@@ -55,5 +117,15 @@ public interface RocksMarshaller<T> {
     public byte[] unmarshal(byte[] value) {
       return value;
     }
+
+    @Override
+    public int sizeOf(byte[] value) {
+      return value.length;
+    }
+
+    @Override
+    public void marshalTo(byte[] value, ByteBuffer dest) {
+      dest.put(value);
+    }
   };
 }
@@ -0,0 +1,80 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.List;
+import java.util.Set;
+
+import org.rocksdb.MemoryUsageType;
+import org.rocksdb.MemoryUtil;
+import org.rocksdb.RocksDB;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksMemoryUsage {
+
+  final long memTableTotal;
+  final long memTableUnflushed;
+  final long tableReadersTotal;
+
+  public RocksMemoryUsage(long memTableTotal, long memTableUnflushed, long tableReadersTotal) {
+    this.memTableTotal = memTableTotal;
+    this.memTableUnflushed = memTableUnflushed;
+    this.tableReadersTotal = tableReadersTotal;
+  }
+
+  // Block cache usage is not included, a shared cache can't be attributed to one instance
+  public static RocksMemoryUsage sample(RocksDB rocksDB) {
+    Arguments.notNull(rocksDB);
+
+    var usage = MemoryUtil.getApproximateMemoryUsageByType(List.of(rocksDB), Set.of());
+    return new RocksMemoryUsage(usage.getOrDefault(MemoryUsageType.kMemTableTotal, 0L),
+        usage.getOrDefault(MemoryUsageType.kMemTableUnFlushed, 0L),
+        usage.getOrDefault(MemoryUsageType.kTableReadersTotal, 0L));
+  }
+
+  public long getMemTableTotal() {
+    return this.memTableTotal;
+  }
+
+  public long getMemTableUnflushed() {
+    return this.memTableUnflushed;
+  }
+
+  public long getTableReadersTotal() {
+    return this.tableReadersTotal;
+  }
+
+  public long getTotal() {
+    return this.memTableTotal + this.tableReadersTotal;
+  }
+
+  @Override
+  public String toString() {
+    return "RocksMemoryUsage[memTableTotal=" + this.memTableTotal + ", memTableUnflushed=" + this.memTableUnflushed
+        + ", tableReadersTotal=" + this.tableReadersTotal + "]";
+  }
+}
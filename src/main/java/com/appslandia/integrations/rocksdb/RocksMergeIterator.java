@@ -0,0 +1,128 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksMergeIterator<K, V> implements Iterator<RocksEntry<K, V>>, AutoCloseable {
+
+  final List<RocksIterator> rocksIterators;
+  final RocksMarshaller<K> keyMarshaller;
+  final RocksMarshaller<V> valueMarshaller;
+  final RocksCloseable resources;
+
+  // Sources are ordered by their current raw key, ties go to the lower shard
+  final PriorityQueue<Source> queue;
+
+  public RocksMergeIterator(List<RocksIterator> rocksIterators, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, RocksCloseable resources) {
+    this.rocksIterators = Arguments.notNull(rocksIterators);
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.valueMarshaller = valueMarshaller;
+    this.resources = resources;
+
+    this.queue = new PriorityQueue<>(Math.max(rocksIterators.size(), 1), (s1, s2) -> {
+      var cmp = Arrays.compareUnsigned(s1.key, s2.key);
+      return (cmp != 0) ? cmp : Integer.compare(s1.index, s2.index);
+    });
+
+    for (var idx = 0; idx < rocksIterators.size(); idx++) {
+      var rocksIterator = rocksIterators.get(idx);
+      rocksIterator.seekToFirst();
+
+      if (rocksIterator.isValid()) {
+        this.queue.add(new Source(idx, rocksIterator, rocksIterator.key()));
+      } else {
+        checkStatus(rocksIterator);
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !this.queue.isEmpty();
+  }
+
+  @Override
+  public RocksEntry<K, V> next() {
+    var source = this.queue.poll();
+    if (source == null) {
+      throw new NoSuchElementException();
+    }
+    var rocksIterator = source.rocksIterator;
+    var entry = new RocksEntry<>(this.keyMarshaller.unmarshal(source.key),
+        (this.valueMarshaller != null) ? this.valueMarshaller.unmarshal(rocksIterator.value()) : null);
+
+    rocksIterator.next();
+    if (rocksIterator.isValid()) {
+      source.key = rocksIterator.key();
+      this.queue.add(source);
+    } else {
+      checkStatus(rocksIterator);
+    }
+    return entry;
+  }
+
+  @Override
+  public void close() {
+    for (RocksIterator rocksIterator : this.rocksIterators) {
+      rocksIterator.close();
+    }
+    if (this.resources != null) {
+      this.resources.close();
+    }
+  }
+
+  static void checkStatus(RocksIterator rocksIterator) {
+    try {
+      rocksIterator.status();
+
+    } catch (RocksDBException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  static class Source {
+    final int index;
+    final RocksIterator rocksIterator;
+    byte[] key;
+
+    Source(int index, RocksIterator rocksIterator, byte[] key) {
+      this.index = index;
+      this.rocksIterator = rocksIterator;
+      this.key = key;
+    }
+  }
+}
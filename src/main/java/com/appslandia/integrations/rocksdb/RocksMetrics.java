@@ -0,0 +1,116 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksMetrics implements RocksMetricsMXBean {
+
+  public static final String JMX_DOMAIN = "com.appslandia.integrations.rocksdb";
+
+  final Map<String, RocksOpMetrics[]> metricsMap = new ConcurrentHashMap<>();
+  private ObjectName _objectName;
+
+  public RocksOpMetrics get(String columnFamilyName, RocksOp op) {
+    var metrics = this.metricsMap.get(columnFamilyName);
+    if (metrics == null) {
+      metrics = this.metricsMap.computeIfAbsent(columnFamilyName, n -> {
+
+        var ops = RocksOp.values();
+        var array = new RocksOpMetrics[ops.length];
+        for (RocksOp o : ops) {
+          array[o.ordinal()] = new RocksOpMetrics(n, o);
+        }
+        return array;
+      });
+    }
+    return metrics[op.ordinal()];
+  }
+
+  void remove(String columnFamilyName) {
+    this.metricsMap.remove(columnFamilyName);
+  }
+
+  public void record(String columnFamilyName, RocksOp op, long startNanos, long bytes) {
+    get(columnFamilyName, op).record(System.nanoTime() - startNanos, bytes);
+  }
+
+  @Override
+  public List<RocksOpSnapshot> getSnapshots() {
+    List<RocksOpSnapshot> snapshots = new ArrayList<>();
+    for (RocksOpMetrics[] metrics : this.metricsMap.values()) {
+      for (RocksOpMetrics m : metrics) {
+
+        if (m.count.sum() > 0) {
+          snapshots.add(m.snapshot());
+        }
+      }
+    }
+    return snapshots;
+  }
+
+  @Override
+  public void reset() {
+    for (RocksOpMetrics[] metrics : this.metricsMap.values()) {
+      for (RocksOpMetrics m : metrics) {
+        m.reset();
+      }
+    }
+  }
+
+  public synchronized void registerMBean(String name) {
+    Arguments.notNull(name);
+    Arguments.isTrue(this._objectName == null, "RocksMetrics is already registered.");
+
+    try {
+      var objectName = new ObjectName(JMX_DOMAIN + ":type=RocksMetrics,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      this._objectName = objectName;
+
+    } catch (JMException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  public synchronized void unregisterMBean() {
+    if (this._objectName != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(this._objectName);
+      } catch (JMException ignore) {
+      }
+      this._objectName = null;
+    }
+  }
+}
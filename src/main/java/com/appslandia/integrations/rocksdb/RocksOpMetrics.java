@@ -0,0 +1,125 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksOpMetrics {
+
+  // 4 sub-buckets per power of two, the relative error is at most 25%
+  static final int BUCKET_COUNT = 248;
+
+  final String columnFamilyName;
+  final RocksOp op;
+
+  final LongAdder count = new LongAdder();
+  final LongAdder bytes = new LongAdder();
+  final LongAdder totalNanos = new LongAdder();
+  final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  // One adder per bucket, contended buckets spread over striped cells instead of one shared array
+  final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+  public RocksOpMetrics(String columnFamilyName, RocksOp op) {
+    this.columnFamilyName = columnFamilyName;
+    this.op = op;
+
+    for (var idx = 0; idx < BUCKET_COUNT; idx++) {
+      this.buckets[idx] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos, long bytes) {
+    this.count.increment();
+    this.totalNanos.add(nanos);
+    this.maxNanos.accumulate(nanos);
+    this.buckets[bucketOf(nanos)].increment();
+
+    if (bytes > 0) {
+      this.bytes.add(bytes);
+    }
+  }
+
+  public RocksOpSnapshot snapshot() {
+    var counts = new long[BUCKET_COUNT];
+    long total = 0;
+    for (var idx = 0; idx < BUCKET_COUNT; idx++) {
+      counts[idx] = this.buckets[idx].sum();
+      total += counts[idx];
+    }
+    var max = this.maxNanos.get();
+    return new RocksOpSnapshot(this.columnFamilyName, this.op.name(), this.count.sum(), this.bytes.sum(),
+        this.totalNanos.sum(), max, Math.min(percentile(counts, total, 0.5), max),
+        Math.min(percentile(counts, total, 0.9), max), Math.min(percentile(counts, total, 0.99), max),
+        Math.min(percentile(counts, total, 0.999), max));
+  }
+
+  public void reset() {
+    this.count.reset();
+    this.bytes.reset();
+    this.totalNanos.reset();
+    this.maxNanos.reset();
+
+    for (LongAdder bucket : this.buckets) {
+      bucket.reset();
+    }
+  }
+
+  static int bucketOf(long nanos) {
+    if (nanos < 4) {
+      return (int) Math.max(nanos, 0);
+    }
+    var log = 63 - Long.numberOfLeadingZeros(nanos);
+    var sub = (int) (nanos >>> (log - 2)) & 3;
+    return (log - 1) * 4 + sub;
+  }
+
+  static long bucketUpperBound(int bucket) {
+    if (bucket < 4) {
+      return bucket;
+    }
+    var log = bucket / 4 + 1;
+    var sub = bucket % 4;
+    return ((5L + sub) << (log - 2)) - 1;
+  }
+
+  static long percentile(long[] counts, long total, double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    var target = (long) Math.ceil(quantile * total);
+    long acc = 0;
+
+    for (var idx = 0; idx < counts.length; idx++) {
+      acc += counts[idx];
+      if (acc >= target) {
+        return bucketUpperBound(idx);
+      }
+    }
+    return bucketUpperBound(counts.length - 1);
+  }
+}
@@ -0,0 +1,105 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksOpSnapshot {
+
+  final String columnFamilyName;
+  final String operation;
+  final long count;
+  final long bytes;
+  final long totalNanos;
+  final long maxNanos;
+  final long p50Nanos;
+  final long p90Nanos;
+  final long p99Nanos;
+  final long p999Nanos;
+
+  public RocksOpSnapshot(String columnFamilyName, String operation, long count, long bytes, long totalNanos,
+      long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos) {
+    this.columnFamilyName = columnFamilyName;
+    this.operation = operation;
+    this.count = count;
+    this.bytes = bytes;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+    this.p50Nanos = p50Nanos;
+    this.p90Nanos = p90Nanos;
+    this.p99Nanos = p99Nanos;
+    this.p999Nanos = p999Nanos;
+  }
+
+  public String getColumnFamilyName() {
+    return this.columnFamilyName;
+  }
+
+  public String getOperation() {
+    return this.operation;
+  }
+
+  public long getCount() {
+    return this.count;
+  }
+
+  public long getBytes() {
+    return this.bytes;
+  }
+
+  public long getTotalNanos() {
+    return this.totalNanos;
+  }
+
+  public long getMeanNanos() {
+    return (this.count == 0) ? 0 : this.totalNanos / this.count;
+  }
+
+  public long getMaxNanos() {
+    return this.maxNanos;
+  }
+
+  public long getP50Nanos() {
+    return this.p50Nanos;
+  }
+
+  public long getP90Nanos() {
+    return this.p90Nanos;
+  }
+
+  public long getP99Nanos() {
+    return this.p99Nanos;
+  }
+
+  public long getP999Nanos() {
+    return this.p999Nanos;
+  }
+
+  @Override
+  public String toString() {
+    return this.columnFamilyName + "." + this.operation + "[count=" + this.count + ", bytes=" + this.bytes + ", mean="
+        + getMeanNanos() + "ns, p50=" + this.p50Nanos + "ns, p99=" + this.p99Nanos + "ns, p999=" + this.p999Nanos
+        + "ns, max=" + this.maxNanos + "ns]";
+  }
+}
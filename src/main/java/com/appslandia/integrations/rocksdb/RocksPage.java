@@ -0,0 +1,69 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.Base64;
+import java.util.List;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksPage<K, V> {
+
+  final List<RocksEntry<K, V>> entries;
+  final String nextToken;
+
+  public RocksPage(List<RocksEntry<K, V>> entries, String nextToken) {
+    this.entries = Arguments.notNull(entries);
+    this.nextToken = nextToken;
+  }
+
+  public List<RocksEntry<K, V>> getEntries() {
+    return this.entries;
+  }
+
+  // Null if this is the last page
+  public String getNextToken() {
+    return this.nextToken;
+  }
+
+  public boolean hasMore() {
+    return this.nextToken != null;
+  }
+
+  // The token is the raw key of the last entry of the page
+  static String encodeToken(byte[] lastKey) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(lastKey);
+  }
+
+  static byte[] decodeToken(String pageToken) {
+    try {
+      return Base64.getUrlDecoder().decode(pageToken);
+
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException("pageToken is invalid.", ex);
+    }
+  }
+}
@@ -0,0 +1,264 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.ColumnFamilyOptionsInterface;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.DBOptionsInterface;
+import org.rocksdb.DataBlockIndexType;
+import org.rocksdb.Filter;
+import org.rocksdb.IndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.MutableColumnFamilyOptionsInterface;
+import org.rocksdb.MutableDBOptionsInterface;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBufferManager;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksPreset {
+
+  public enum Workload {
+    POINT_LOOKUP, SCAN, WRITE_HEAVY, SMALL_MEMORY
+  }
+
+  public static final long DEFAULT_BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+  public static final long SMALL_BLOCK_CACHE_SIZE = 8L * 1024 * 1024;
+
+  static final int NUM_LEVELS = 7;
+  static final long KB = 1024;
+  static final long MB = 1024 * 1024;
+
+  final Workload workload;
+  final RocksCloseable rocksCloseable;
+
+  private Cache _blockCache;
+  private long _blockCacheSize;
+  private WriteBufferManager _writeBufferManager;
+  private long _writeBufferManagerSize;
+  private int _parallelism = Runtime.getRuntime().availableProcessors();
+  private Filter _filter;
+
+  public RocksPreset(Workload workload, RocksCloseable rocksCloseable) {
+    this.workload = Arguments.notNull(workload);
+    this.rocksCloseable = Arguments.notNull(rocksCloseable);
+    this._blockCacheSize = (workload == Workload.SMALL_MEMORY) ? SMALL_BLOCK_CACHE_SIZE : DEFAULT_BLOCK_CACHE_SIZE;
+  }
+
+  public Workload getWorkload() {
+    return this.workload;
+  }
+
+  // A cache set by the caller is shared, not registered with the RocksCloseable
+  public RocksPreset setBlockCache(Cache blockCache) {
+    this._blockCache = Arguments.notNull(blockCache);
+    return this;
+  }
+
+  public RocksPreset setBlockCacheSize(long blockCacheSize) {
+    Arguments.isTrue(blockCacheSize > 0, "blockCacheSize is invalid.");
+    Arguments.isTrue(this._blockCache == null, "blockCache is already created.");
+
+    this._blockCacheSize = blockCacheSize;
+    return this;
+  }
+
+  public RocksPreset setWriteBufferManager(WriteBufferManager writeBufferManager) {
+    this._writeBufferManager = Arguments.notNull(writeBufferManager);
+    return this;
+  }
+
+  // Memtables of all column families are charged to the block cache up to this size
+  public RocksPreset setWriteBufferManagerSize(long writeBufferManagerSize) {
+    Arguments.isTrue(writeBufferManagerSize > 0, "writeBufferManagerSize is invalid.");
+    Arguments.isTrue(this._writeBufferManager == null, "writeBufferManager is already created.");
+
+    this._writeBufferManagerSize = writeBufferManagerSize;
+    return this;
+  }
+
+  public RocksPreset setParallelism(int parallelism) {
+    Arguments.isTrue(parallelism > 0, "parallelism is invalid.");
+
+    this._parallelism = parallelism;
+    return this;
+  }
+
+  // All options built by this preset share one block cache
+  public Cache getBlockCache() {
+    if (this._blockCache == null) {
+      // Caches don't load the native library themselves
+      RocksDB.loadLibrary();
+
+      this._blockCache = new LRUCache(this._blockCacheSize);
+      this.rocksCloseable.add(this._blockCache);
+    }
+    return this._blockCache;
+  }
+
+  public WriteBufferManager getWriteBufferManager() {
+    if (this._writeBufferManager == null && this._writeBufferManagerSize > 0) {
+      this._writeBufferManager = new WriteBufferManager(this._writeBufferManagerSize, getBlockCache());
+      this.rocksCloseable.add(this._writeBufferManager);
+    }
+    return this._writeBufferManager;
+  }
+
+  public ColumnFamilyOptions newCfOptions() {
+    var options = new ColumnFamilyOptions();
+    this.rocksCloseable.add(options);
+
+    return applyCfOptions(options);
+  }
+
+  public DBOptions newDBOptions() {
+    var options = new DBOptions();
+    this.rocksCloseable.add(options);
+
+    return applyDBOptions(options);
+  }
+
+  public Options newOptions() {
+    var options = new Options();
+    this.rocksCloseable.add(options);
+
+    applyDBOptions(options);
+    return applyCfOptions(options);
+  }
+
+  public <T extends ColumnFamilyOptionsInterface<T> & MutableColumnFamilyOptionsInterface<T>> T applyCfOptions(
+      T options) {
+    Arguments.notNull(options);
+
+    var tableConfig = new BlockBasedTableConfig().setBlockCache(getBlockCache()).setFilterPolicy(getFilter())
+        .setWholeKeyFiltering(true).setCacheIndexAndFilterBlocks(true).setPinL0FilterAndIndexBlocksInCache(true);
+
+    switch (this.workload) {
+    case POINT_LOOKUP:
+      // Small blocks and the in-block hash index make single key lookups cheap
+      tableConfig.setBlockSize(4 * KB).setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash)
+          .setDataBlockHashTableUtilRatio(0.75);
+
+      options.setCompactionStyle(CompactionStyle.LEVEL).setLevelCompactionDynamicLevelBytes(true);
+      options.setWriteBufferSize(64 * MB).setMaxWriteBufferNumber(3);
+      options.setMemtableWholeKeyFiltering(true).setMemtablePrefixBloomSizeRatio(0.1);
+      setCompression(options, 2, CompressionType.LZ4_COMPRESSION);
+      break;
+
+    case SCAN:
+      // Large blocks and partitioned index and filters keep long range reads sequential
+      tableConfig.setBlockSize(32 * KB).setIndexType(IndexType.kTwoLevelIndexSearch).setPartitionFilters(true)
+          .setMetadataBlockSize(4 * KB).setPinTopLevelIndexAndFilter(true);
+
+      options.setCompactionStyle(CompactionStyle.LEVEL).setLevelCompactionDynamicLevelBytes(true);
+      options.setWriteBufferSize(64 * MB).setMaxWriteBufferNumber(3);
+      setCompression(options, 1, CompressionType.LZ4_COMPRESSION);
+      break;
+
+    case WRITE_HEAVY:
+      // Universal compaction trades space and read amplification for less write amplification
+      tableConfig.setBlockSize(16 * KB).setIndexType(IndexType.kTwoLevelIndexSearch).setPartitionFilters(true)
+          .setMetadataBlockSize(4 * KB).setPinTopLevelIndexAndFilter(true);
+
+      options.setCompactionStyle(CompactionStyle.UNIVERSAL);
+      options.setWriteBufferSize(128 * MB).setMaxWriteBufferNumber(4).setMinWriteBufferNumberToMerge(2);
+      options.setLevel0FileNumCompactionTrigger(8).setLevel0SlowdownWritesTrigger(24)
+          .setLevel0StopWritesTrigger(40);
+      options.setCompressionType(CompressionType.LZ4_COMPRESSION)
+          .setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+      break;
+
+    default:
+      tableConfig.setBlockSize(4 * KB).setIndexType(IndexType.kTwoLevelIndexSearch).setPartitionFilters(true)
+          .setMetadataBlockSize(4 * KB).setOptimizeFiltersForMemory(true);
+
+      options.setCompactionStyle(CompactionStyle.LEVEL).setLevelCompactionDynamicLevelBytes(true);
+      options.setWriteBufferSize(8 * MB).setMaxWriteBufferNumber(2);
+      setCompression(options, 1, CompressionType.ZSTD_COMPRESSION);
+      break;
+    }
+
+    options.setTableFormatConfig(tableConfig);
+    return options;
+  }
+
+  public <T extends DBOptionsInterface<T> & MutableDBOptionsInterface<T>> T applyDBOptions(T options) {
+    Arguments.notNull(options);
+
+    options.setMaxBackgroundJobs(Math.max(this._parallelism, 2)).setBytesPerSync(1 * MB);
+
+    var writeBufferManager = getWriteBufferManager();
+    if (writeBufferManager != null) {
+      options.setWriteBufferManager(writeBufferManager);
+    }
+
+    switch (this.workload) {
+    case SCAN:
+      options.setCompactionReadaheadSize(2 * MB);
+      break;
+
+    case WRITE_HEAVY:
+      options.setEnablePipelinedWrite(true).setWalBytesPerSync(1 * MB);
+      break;
+
+    case SMALL_MEMORY:
+      options.setMaxBackgroundJobs(2).setMaxOpenFiles(256).setKeepLogFileNum(2);
+      break;
+
+    default:
+      break;
+    }
+    return options;
+  }
+
+  private Filter getFilter() {
+    if (this._filter == null) {
+      this._filter = new BloomFilter(RocksUtils.DEFAULT_BLOOM_BITS_PER_KEY);
+      this.rocksCloseable.add(this._filter);
+    }
+    return this._filter;
+  }
+
+  // Upper levels stay uncompressed for cheap flushes, the bottommost level uses ZSTD
+  static <T extends ColumnFamilyOptionsInterface<T> & MutableColumnFamilyOptionsInterface<T>> void setCompression(
+      T options, int uncompressedLevels, CompressionType compression) {
+    List<CompressionType> compressionPerLevel = new ArrayList<>(NUM_LEVELS);
+    for (var level = 0; level < NUM_LEVELS; level++) {
+      compressionPerLevel.add((level < uncompressedLevels) ? CompressionType.NO_COMPRESSION : compression);
+    }
+    options.setCompressionPerLevel(compressionPerLevel).setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+  }
+}
@@ -0,0 +1,191 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Snapshot;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksReadView implements AutoCloseable {
+
+  final RocksManager rocksManager;
+  final Snapshot snapshot;
+  final ReadOptions readOptions;
+  final long openNanos;
+
+  // Open iterators only, an iterator removes itself when closed
+  final Set<RocksEntryIterator<?, ?>> iterators = ConcurrentHashMap.newKeySet();
+  private boolean _closed;
+
+  // Created by RocksManager.newReadView() only, which tracks and releases the snapshot
+  RocksReadView(RocksManager rocksManager) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.snapshot = rocksManager.rocksDB.getSnapshot();
+    this.readOptions = new ReadOptions().setSnapshot(this.snapshot);
+    this.openNanos = System.nanoTime();
+  }
+
+  public Snapshot getSnapshot() {
+    return this.snapshot;
+  }
+
+  public long getSequenceNumber() {
+    return this.snapshot.getSequenceNumber();
+  }
+
+  public long getAgeNanos() {
+    return System.nanoTime() - this.openNanos;
+  }
+
+  public byte[] get(String key) throws RocksDBException {
+    return get(key, null);
+  }
+
+  public byte[] get(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return get(RocksUtils.marshal(key), columnFamilyName);
+  }
+
+  public byte[] get(byte[] key, String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.get(key, columnFamilyName, this.readOptions);
+  }
+
+  public <K, V> V get(K key, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.get(key, keyMarshaller, valueMarshaller, columnFamilyName, this.readOptions);
+  }
+
+  public List<byte[]> multiGet(List<String> keys) throws RocksDBException {
+    return multiGet(keys, null);
+  }
+
+  public List<byte[]> multiGet(List<String> keys, String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.multiGet(keys, columnFamilyName, this.readOptions);
+  }
+
+  public List<byte[]> multiGetAsList(List<byte[]> keys, String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.multiGetAsList(keys, columnFamilyName, this.readOptions);
+  }
+
+  public List<byte[]> multiGetAsList(List<byte[]> keys, List<String> columnFamilyNames) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.multiGetAsList(keys, columnFamilyNames, this.readOptions);
+  }
+
+  public <K, V> List<V> multiGet(List<K> keys, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.multiGet(keys, keyMarshaller, valueMarshaller, columnFamilyName, this.readOptions);
+  }
+
+  public boolean keyExists(String key) throws RocksDBException {
+    return keyExists(key, null);
+  }
+
+  public boolean keyExists(String key, String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.keyExists(key, columnFamilyName, this.readOptions);
+  }
+
+  public boolean keyExists(byte[] key, String columnFamilyName) throws RocksDBException {
+    checkOpen();
+    return this.rocksManager.keyExists(key, columnFamilyName, this.readOptions);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRocksEntryIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller) {
+    return newRocksEntryIterator(keyMarshaller, valueMarshaller, null, null, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRocksEntryIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K fromKey, Function<K, Boolean> toKeyMatcher, Function<K, Boolean> keyFilter,
+      String columnFamilyName) {
+    checkOpen();
+    return track(this.rocksManager.newRocksEntryIterator(keyMarshaller, valueMarshaller, fromKey, toKeyMatcher,
+        keyFilter, columnFamilyName, this.readOptions));
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, null, null);
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, Function<K, Boolean> keyFilter,
+      String columnFamilyName) {
+    checkOpen();
+    return track(this.rocksManager.newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, keyFilter,
+        columnFamilyName, this.readOptions));
+  }
+
+  public <K, V> RocksEntryIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix, String columnFamilyName) {
+    checkOpen();
+    return track(this.rocksManager.newPrefixIterator(keyMarshaller, valueMarshaller, prefix, null, columnFamilyName,
+        this.readOptions));
+  }
+
+  private <K, V> RocksEntryIterator<K, V> track(RocksEntryIterator<K, V> iterator) {
+    iterator.onClose = () -> this.iterators.remove(iterator);
+    this.iterators.add(iterator);
+    return iterator;
+  }
+
+  private void checkOpen() {
+    if (this._closed) {
+      throw new IllegalStateException("RocksReadView is closed.");
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (this._closed) {
+        return;
+      }
+      this._closed = true;
+    }
+
+    // Iterators must not outlive the snapshot
+    for (RocksEntryIterator<?, ?> iterator : this.iterators) {
+      iterator.close();
+    }
+    this.readOptions.close();
+    this.rocksManager.releaseReadView(this);
+  }
+}
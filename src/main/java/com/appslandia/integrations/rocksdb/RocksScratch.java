@@ -0,0 +1,143 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.nio.ByteBuffer;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksScratch {
+
+  static final int MIN_CAPACITY = 256;
+
+  // Larger buffers serve a single call and are not kept by the thread
+  static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+  static final ThreadLocal<RocksScratch> LOCAL = ThreadLocal.withInitial(RocksScratch::new);
+
+  private ByteBuffer _keyBuffer;
+  private ByteBuffer _valueBuffer;
+  private byte[] _bytes;
+
+  // Virtual threads are many and short-lived, a thread-local scratch would pin direct memory per thread.
+  // Their scratch serves heap bytes() only, direct buffer callers check isPooled() and use byte[] instead
+  public static RocksScratch get() {
+    if (!isPooled()) {
+      return new RocksScratch();
+    }
+    return LOCAL.get();
+  }
+
+  public static boolean isPooled() {
+    return !Thread.currentThread().isVirtual();
+  }
+
+  public <T> ByteBuffer key(T key, RocksMarshaller<T> marshaller) {
+    var buffer = marshal(key, marshaller, this._keyBuffer);
+    if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+      this._keyBuffer = buffer;
+    }
+    return buffer;
+  }
+
+  public <T> ByteBuffer value(T value, RocksMarshaller<T> marshaller) {
+    var buffer = marshal(value, marshaller, this._valueBuffer);
+    if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+      this._valueBuffer = buffer;
+    }
+    return buffer;
+  }
+
+  public ByteBuffer keyBuffer(int capacity) {
+    var buffer = ensure(this._keyBuffer, capacity);
+    if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+      this._keyBuffer = buffer;
+    }
+    return buffer.clear();
+  }
+
+  public ByteBuffer valueBuffer(int capacity) {
+    var buffer = ensure(this._valueBuffer, capacity);
+    if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+      this._valueBuffer = buffer;
+    }
+    return buffer.clear();
+  }
+
+  // Heap scratch for marshallers copying out of direct buffers
+  public byte[] bytes(int length) {
+    if (this._bytes != null && this._bytes.length >= length) {
+      return this._bytes;
+    }
+    var bytes = new byte[capacityFor(length)];
+    if (bytes.length <= MAX_RETAINED_CAPACITY) {
+      this._bytes = bytes;
+    }
+    return bytes;
+  }
+
+  // Returns the value in the value buffer or null if the key is not found
+  public ByteBuffer get(RocksDB rocksDB, ColumnFamilyHandle handle, ReadOptions options, ByteBuffer key)
+      throws RocksDBException {
+    var value = valueBuffer(MIN_CAPACITY);
+    var size = rocksDB.get(handle, options, key.duplicate(), value);
+
+    if (size > value.capacity()) {
+      value = valueBuffer(size);
+      size = rocksDB.get(handle, options, key.duplicate(), value);
+    }
+    if (size == RocksDB.NOT_FOUND) {
+      return null;
+    }
+    return value.position(0).limit(size);
+  }
+
+  static <T> ByteBuffer marshal(T value, RocksMarshaller<T> marshaller, ByteBuffer buffer) {
+    buffer = ensure(buffer, marshaller.sizeOf(value));
+    buffer.clear();
+
+    marshaller.marshalTo(value, buffer);
+    return buffer.flip();
+  }
+
+  static ByteBuffer ensure(ByteBuffer buffer, int capacity) {
+    if (buffer == null || buffer.capacity() < capacity) {
+      return ByteBuffer.allocateDirect(capacityFor(capacity));
+    }
+    return buffer;
+  }
+
+  static int capacityFor(int length) {
+    if (length <= MIN_CAPACITY) {
+      return MIN_CAPACITY;
+    }
+    var capacity = Integer.highestOneBit(length - 1) << 1;
+    return (capacity > 0) ? capacity : length;
+  }
+}
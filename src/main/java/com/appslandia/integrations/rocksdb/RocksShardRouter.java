@@ -0,0 +1,79 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+@FunctionalInterface
+public interface RocksShardRouter {
+
+  int shardOf(byte[] key, int shardCount);
+
+  // FNV-1a 32-bit with the murmur3 finalizer, stable across JVMs so keys stay on their shards after a restart
+  RocksShardRouter HASH = (key, shardCount) -> {
+    var hash = 0x811c9dc5;
+    for (byte b : key) {
+      hash ^= (b & 0xff);
+      hash *= 0x01000193;
+    }
+    hash ^= (hash >>> 16);
+    hash *= 0x85ebca6b;
+    hash ^= (hash >>> 13);
+    hash *= 0xc2b2ae35;
+    hash ^= (hash >>> 16);
+    return (hash & 0x7fffffff) % shardCount;
+  };
+
+  // Shard idx covers [splitKeys[idx - 1], splitKeys[idx])
+  static RocksShardRouter range(List<byte[]> splitKeys) {
+    Arguments.notNull(splitKeys);
+
+    var keys = new ArrayList<>(splitKeys);
+    for (var idx = 1; idx < keys.size(); idx++) {
+      Arguments.isTrue(Arrays.compareUnsigned(keys.get(idx - 1), keys.get(idx)) < 0, "splitKeys are not sorted.");
+    }
+
+    return (key, shardCount) -> {
+      Arguments.isTrue(keys.size() == shardCount - 1, "splitKeys don't match shardCount.");
+
+      var low = 0;
+      var high = keys.size();
+      while (low < high) {
+        var mid = (low + high) >>> 1;
+        if (Arrays.compareUnsigned(keys.get(mid), key) <= 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    };
+  }
+}
@@ -0,0 +1,256 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptionsInterface;
+import org.rocksdb.DBOptionsInterface;
+import org.rocksdb.Env;
+import org.rocksdb.HyperClockCache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.MutableDBOptionsInterface;
+import org.rocksdb.Priority;
+import org.rocksdb.RateLimiter;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileManager;
+import org.rocksdb.WriteBufferManager;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksSharedResources implements AutoCloseable {
+
+  final Cache blockCache;
+  final WriteBufferManager writeBufferManager;
+  final RateLimiter rateLimiter;
+  final SstFileManager sstFileManager;
+  final int backgroundThreads;
+
+  final RocksCloseable resources = new RocksCloseable();
+  final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+  // The owner holds one reference, each attached RocksManager holds another
+  private int _refCount = 1;
+  private boolean _closed;
+
+  // writeBufferSize, rateBytesPerSecond and backgroundThreads are disabled with 0
+  public RocksSharedResources(long blockCacheSize, boolean hyperClockCache, long writeBufferSize,
+      long rateBytesPerSecond, int backgroundThreads) throws RocksDBException {
+    Arguments.isTrue(blockCacheSize > 0, "blockCacheSize is invalid.");
+    Arguments.isTrue(writeBufferSize >= 0, "writeBufferSize is invalid.");
+    Arguments.isTrue(rateBytesPerSecond >= 0, "rateBytesPerSecond is invalid.");
+    Arguments.isTrue(backgroundThreads >= 0, "backgroundThreads is invalid.");
+
+    // Caches don't load the native library themselves
+    RocksDB.loadLibrary();
+    try {
+      // HyperClockCache estimates the entry charge when 0 is given
+      this.blockCache = hyperClockCache ? new HyperClockCache(blockCacheSize, 0, -1, false)
+          : new LRUCache(blockCacheSize);
+      this.resources.add(this.blockCache);
+
+      // Memtables are charged to the block cache so both share one memory budget
+      this.writeBufferManager = (writeBufferSize > 0) ? new WriteBufferManager(writeBufferSize, this.blockCache)
+          : null;
+      if (this.writeBufferManager != null) {
+        this.resources.add(this.writeBufferManager);
+      }
+
+      this.rateLimiter = (rateBytesPerSecond > 0) ? new RateLimiter(rateBytesPerSecond) : null;
+      if (this.rateLimiter != null) {
+        this.resources.add(this.rateLimiter);
+      }
+
+      this.sstFileManager = new SstFileManager(Env.getDefault());
+      this.resources.add(this.sstFileManager);
+
+    } catch (RocksDBException | RuntimeException ex) {
+      this.resources.close();
+      throw ex;
+    }
+
+    // Sets max_background_jobs of attached instances, the Env is only changed by configureDefaultEnv()
+    this.backgroundThreads = backgroundThreads;
+  }
+
+  // Opt-in: the default Env thread pools are process-wide and used by every RocksDB instance in the JVM
+  public RocksSharedResources configureDefaultEnv() {
+    if (this.backgroundThreads == 0) {
+      throw new IllegalStateException("backgroundThreads is required.");
+    }
+    Env.getDefault().setBackgroundThreads(this.backgroundThreads, Priority.LOW);
+    Env.getDefault().setBackgroundThreads(Math.max(this.backgroundThreads / 4, 1), Priority.HIGH);
+    return this;
+  }
+
+  public Cache getBlockCache() {
+    return this.blockCache;
+  }
+
+  public WriteBufferManager getWriteBufferManager() {
+    return this.writeBufferManager;
+  }
+
+  public RateLimiter getRateLimiter() {
+    return this.rateLimiter;
+  }
+
+  public SstFileManager getSstFileManager() {
+    return this.sstFileManager;
+  }
+
+  // The lease is released when rocksCloseable is closed, usually by RocksManager.close()
+  public <T extends DBOptionsInterface<T> & MutableDBOptionsInterface<T>> T attach(String name, T options,
+      RocksCloseable rocksCloseable) {
+    Arguments.notNull(name);
+    Arguments.notNull(options);
+    Arguments.notNull(rocksCloseable);
+
+    rocksCloseable.add(acquire(name));
+
+    options.setEnv(Env.getDefault());
+    options.setSstFileManager(this.sstFileManager);
+
+    if (this.writeBufferManager != null) {
+      options.setWriteBufferManager(this.writeBufferManager);
+    }
+    if (this.rateLimiter != null) {
+      options.setRateLimiter(this.rateLimiter);
+    }
+    if (this.backgroundThreads > 0) {
+      options.setMaxBackgroundJobs(this.backgroundThreads);
+    }
+    return options;
+  }
+
+  public <T extends ColumnFamilyOptionsInterface<T>> T attachCf(T options) {
+    Arguments.notNull(options);
+
+    var tableConfig = (options.tableFormatConfig() instanceof BlockBasedTableConfig config) ? config
+        : new BlockBasedTableConfig();
+    tableConfig.setBlockCache(this.blockCache);
+
+    return options.setTableFormatConfig(tableConfig);
+  }
+
+  synchronized Lease acquire(String name) {
+    if (this._closed) {
+      throw new IllegalStateException("RocksSharedResources is closed.");
+    }
+    this._refCount++;
+
+    var lease = new Lease(this, name);
+    this.leases.add(lease);
+    return lease;
+  }
+
+  synchronized void release(Lease lease) {
+    this.leases.remove(lease);
+
+    if (--this._refCount == 0) {
+      this.resources.close();
+    }
+  }
+
+  public synchronized int getRefCount() {
+    return this._refCount;
+  }
+
+  // Memory usage by attached instance name, the block cache is reported as a whole
+  public Map<String, RocksMemoryUsage> getMemoryUsage() {
+    Map<String, RocksMemoryUsage> usage = new TreeMap<>();
+    for (Lease lease : this.leases) {
+      var leaseUsage = lease.sample();
+      if (leaseUsage != null) {
+        usage.put(lease.name, leaseUsage);
+      }
+    }
+    return usage;
+  }
+
+  public long getBlockCacheUsage() {
+    return this.blockCache.getUsage();
+  }
+
+  public long getBlockCachePinnedUsage() {
+    return this.blockCache.getPinnedUsage();
+  }
+
+  // Native resources are closed once every attached RocksManager is closed
+  @Override
+  public synchronized void close() {
+    if (this._closed) {
+      return;
+    }
+    this._closed = true;
+
+    if (--this._refCount == 0) {
+      this.resources.close();
+    }
+  }
+
+  public static class Lease implements AutoCloseable {
+    final RocksSharedResources owner;
+    final String name;
+    final AtomicBoolean released = new AtomicBoolean();
+    private RocksDB _rocksDB;
+
+    Lease(RocksSharedResources owner, String name) {
+      this.owner = owner;
+      this.name = name;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    // RocksManager.close() unbinds with null before closing the database, after any running sample
+    synchronized void bind(RocksDB rocksDB) {
+      this._rocksDB = rocksDB;
+    }
+
+    synchronized RocksMemoryUsage sample() {
+      if (this._rocksDB == null || this.released.get()) {
+        return null;
+      }
+      return RocksMemoryUsage.sample(this._rocksDB);
+    }
+
+    @Override
+    public void close() {
+      if (this.released.compareAndSet(false, true)) {
+        this.owner.release(this);
+      }
+    }
+  }
+}
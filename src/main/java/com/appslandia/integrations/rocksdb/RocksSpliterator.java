@@ -0,0 +1,185 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.rocksdb.ReadOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksSpliterator<K, V> implements Spliterator<RocksEntry<K, V>> {
+
+  final RocksManager rocksManager;
+  final RocksMarshaller<K> keyMarshaller;
+  final RocksMarshaller<V> valueMarshaller;
+  final String columnFamilyName;
+  final ReadOptions options;
+
+  // Sub-range idx covers [splitKeys[idx - 1], splitKeys[idx])
+  final List<byte[]> splitKeys;
+  final List<RocksEntryIterator<K, V>> iterators;
+
+  // Shared by all splits, onFinished runs once every sub-range is fully consumed
+  final AtomicInteger remainingRanges;
+  final Runnable onFinished;
+
+  private int _fromRange;
+  private final int _toRange;
+
+  private RocksEntryIterator<K, V> _iterator;
+  private boolean _done;
+
+  public RocksSpliterator(RocksManager rocksManager, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, String columnFamilyName, ReadOptions options, List<byte[]> splitKeys) {
+    this(rocksManager, keyMarshaller, valueMarshaller, columnFamilyName, options, splitKeys, null);
+  }
+
+  public RocksSpliterator(RocksManager rocksManager, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, String columnFamilyName, ReadOptions options, List<byte[]> splitKeys,
+      Runnable onFinished) {
+    this(rocksManager, keyMarshaller, valueMarshaller, columnFamilyName, options, splitKeys, new ArrayList<>(),
+        new AtomicInteger(splitKeys.size() + 1), onFinished, 0, splitKeys.size() + 1);
+  }
+
+  private RocksSpliterator(RocksManager rocksManager, RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, String columnFamilyName, ReadOptions options, List<byte[]> splitKeys,
+      List<RocksEntryIterator<K, V>> iterators, AtomicInteger remainingRanges, Runnable onFinished, int fromRange,
+      int toRange) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.valueMarshaller = valueMarshaller;
+    this.columnFamilyName = columnFamilyName;
+    this.options = options;
+
+    this.splitKeys = Arguments.notNull(splitKeys);
+    this.iterators = iterators;
+    this.remainingRanges = remainingRanges;
+    this.onFinished = onFinished;
+    this._fromRange = fromRange;
+    this._toRange = toRange;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super RocksEntry<K, V>> action) {
+    Arguments.notNull(action);
+
+    if (this._done) {
+      return false;
+    }
+    var iterator = getIterator();
+    if (iterator.hasNext()) {
+      action.accept(iterator.next());
+      return true;
+    }
+    finish(iterator);
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super RocksEntry<K, V>> action) {
+    Arguments.notNull(action);
+
+    if (this._done) {
+      return;
+    }
+    var iterator = getIterator();
+    while (iterator.hasNext()) {
+      action.accept(iterator.next());
+    }
+    finish(iterator);
+  }
+
+  private void finish(RocksEntryIterator<K, V> iterator) {
+    this._done = true;
+    iterator.close();
+
+    if (this.remainingRanges.addAndGet(-(this._toRange - this._fromRange)) == 0 && this.onFinished != null) {
+      this.onFinished.run();
+    }
+  }
+
+  @Override
+  public Spliterator<RocksEntry<K, V>> trySplit() {
+    if (this._iterator != null || this._toRange - this._fromRange < 2) {
+      return null;
+    }
+    var midRange = (this._fromRange + this._toRange) >>> 1;
+    var prefix = new RocksSpliterator<>(this.rocksManager, this.keyMarshaller, this.valueMarshaller,
+        this.columnFamilyName, this.options, this.splitKeys, this.iterators, this.remainingRanges, this.onFinished,
+        this._fromRange, midRange);
+
+    this._fromRange = midRange;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return this._done ? 0 : Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  private RocksEntryIterator<K, V> getIterator() {
+    if (this._iterator == null) {
+      var lowerKey = (this._fromRange == 0) ? null : this.splitKeys.get(this._fromRange - 1);
+      var upperKey = (this._toRange == this.splitKeys.size() + 1) ? null : this.splitKeys.get(this._toRange - 1);
+
+      var resources = new RocksCloseable();
+      try {
+        var readOptions = RocksManager.newBoundedReadOptions(lowerKey, upperKey, this.options, resources);
+        var rocksIterator = this.rocksManager.newRocksIterator(this.columnFamilyName, readOptions);
+
+        this._iterator = this.rocksManager.withMetrics(new RocksEntryIterator<>(rocksIterator, this.keyMarshaller,
+            this.valueMarshaller, null, null, null, null, resources), this.columnFamilyName);
+
+      } catch (RuntimeException ex) {
+        resources.close();
+        throw ex;
+      }
+      synchronized (this.iterators) {
+        this.iterators.add(this._iterator);
+      }
+    }
+    return this._iterator;
+  }
+
+  void closeIterators() {
+    synchronized (this.iterators) {
+      for (RocksEntryIterator<K, V> iterator : this.iterators) {
+        iterator.close();
+      }
+      this.iterators.clear();
+    }
+  }
+}
@@ -0,0 +1,261 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksStats {
+
+  public static final String CUR_SIZE_ALL_MEM_TABLES = "rocksdb.cur-size-all-mem-tables";
+  public static final String SIZE_ALL_MEM_TABLES = "rocksdb.size-all-mem-tables";
+  public static final String NUM_IMMUTABLE_MEM_TABLE = "rocksdb.num-immutable-mem-table";
+  public static final String ESTIMATE_PENDING_COMPACTION_BYTES = "rocksdb.estimate-pending-compaction-bytes";
+  public static final String LIVE_SST_FILES_SIZE = "rocksdb.live-sst-files-size";
+  public static final String TOTAL_SST_FILES_SIZE = "rocksdb.total-sst-files-size";
+  public static final String ESTIMATE_NUM_KEYS = "rocksdb.estimate-num-keys";
+  public static final String BLOCK_CACHE_USAGE = "rocksdb.block-cache-usage";
+  public static final String BLOCK_CACHE_PINNED_USAGE = "rocksdb.block-cache-pinned-usage";
+  public static final String NUM_RUNNING_COMPACTIONS = "rocksdb.num-running-compactions";
+  public static final String NUM_RUNNING_FLUSHES = "rocksdb.num-running-flushes";
+  public static final String IS_WRITE_STOPPED = "rocksdb.is-write-stopped";
+  public static final String ACTUAL_DELAYED_WRITE_RATE = "rocksdb.actual-delayed-write-rate";
+  public static final String NUM_SNAPSHOTS = "rocksdb.num-snapshots";
+  public static final String OLDEST_SNAPSHOT_TIME = "rocksdb.oldest-snapshot-time";
+
+  final String columnFamilyName;
+  final long timeNanos;
+
+  // Column family properties
+  long curSizeAllMemTables;
+  long sizeAllMemTables;
+  long numImmutableMemTables;
+  long pendingCompactionBytes;
+  long liveSstFilesSize;
+  long totalSstFilesSize;
+  long estimateNumKeys;
+
+  // DB properties
+  long blockCacheUsage;
+  long blockCachePinnedUsage;
+  long numRunningCompactions;
+  long numRunningFlushes;
+  boolean writeStopped;
+  long delayedWriteRate;
+  long numSnapshots;
+  long oldestSnapshotTime;
+
+  // Statistics tickers, -1 if no Statistics
+  long blockCacheHits = -1;
+  long blockCacheMisses = -1;
+  long bytesWritten = -1;
+  long bytesRead = -1;
+  long keysWritten = -1;
+  long keysRead = -1;
+  long stallMicros = -1;
+  long compactWriteBytes = -1;
+  long flushWriteBytes = -1;
+
+  RocksStats(String columnFamilyName, long timeNanos) {
+    this.columnFamilyName = columnFamilyName;
+    this.timeNanos = timeNanos;
+  }
+
+  public static RocksStats sample(RocksDB rocksDB, String columnFamilyName, ColumnFamilyHandle handle,
+      Statistics statistics) {
+    Arguments.notNull(rocksDB);
+    Arguments.notNull(handle);
+
+    var stats = new RocksStats(columnFamilyName, System.nanoTime());
+
+    stats.curSizeAllMemTables = getLongProperty(rocksDB, handle, CUR_SIZE_ALL_MEM_TABLES);
+    stats.sizeAllMemTables = getLongProperty(rocksDB, handle, SIZE_ALL_MEM_TABLES);
+    stats.numImmutableMemTables = getLongProperty(rocksDB, handle, NUM_IMMUTABLE_MEM_TABLE);
+    stats.pendingCompactionBytes = getLongProperty(rocksDB, handle, ESTIMATE_PENDING_COMPACTION_BYTES);
+    stats.liveSstFilesSize = getLongProperty(rocksDB, handle, LIVE_SST_FILES_SIZE);
+    stats.totalSstFilesSize = getLongProperty(rocksDB, handle, TOTAL_SST_FILES_SIZE);
+    stats.estimateNumKeys = getLongProperty(rocksDB, handle, ESTIMATE_NUM_KEYS);
+
+    stats.blockCacheUsage = getLongProperty(rocksDB, handle, BLOCK_CACHE_USAGE);
+    stats.blockCachePinnedUsage = getLongProperty(rocksDB, handle, BLOCK_CACHE_PINNED_USAGE);
+    stats.numRunningCompactions = getLongProperty(rocksDB, null, NUM_RUNNING_COMPACTIONS);
+    stats.numRunningFlushes = getLongProperty(rocksDB, null, NUM_RUNNING_FLUSHES);
+    stats.writeStopped = getLongProperty(rocksDB, null, IS_WRITE_STOPPED) > 0;
+    stats.delayedWriteRate = getLongProperty(rocksDB, null, ACTUAL_DELAYED_WRITE_RATE);
+    stats.numSnapshots = getLongProperty(rocksDB, null, NUM_SNAPSHOTS);
+    stats.oldestSnapshotTime = getLongProperty(rocksDB, null, OLDEST_SNAPSHOT_TIME);
+
+    if (statistics != null) {
+      stats.blockCacheHits = statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+      stats.blockCacheMisses = statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+      stats.bytesWritten = statistics.getTickerCount(TickerType.BYTES_WRITTEN);
+      stats.bytesRead = statistics.getTickerCount(TickerType.BYTES_READ);
+      stats.keysWritten = statistics.getTickerCount(TickerType.NUMBER_KEYS_WRITTEN);
+      stats.keysRead = statistics.getTickerCount(TickerType.NUMBER_KEYS_READ);
+      stats.stallMicros = statistics.getTickerCount(TickerType.STALL_MICROS);
+      stats.compactWriteBytes = statistics.getTickerCount(TickerType.COMPACT_WRITE_BYTES);
+      stats.flushWriteBytes = statistics.getTickerCount(TickerType.FLUSH_WRITE_BYTES);
+    }
+    return stats;
+  }
+
+  static long getLongProperty(RocksDB rocksDB, ColumnFamilyHandle handle, String property) {
+    try {
+      return (handle != null) ? rocksDB.getLongProperty(handle, property) : rocksDB.getLongProperty(property);
+
+    } catch (RocksDBException ex) {
+      return -1;
+    }
+  }
+
+  public String getColumnFamilyName() {
+    return this.columnFamilyName;
+  }
+
+  public long getTimeNanos() {
+    return this.timeNanos;
+  }
+
+  public long getCurSizeAllMemTables() {
+    return this.curSizeAllMemTables;
+  }
+
+  public long getSizeAllMemTables() {
+    return this.sizeAllMemTables;
+  }
+
+  public long getNumImmutableMemTables() {
+    return this.numImmutableMemTables;
+  }
+
+  public long getPendingCompactionBytes() {
+    return this.pendingCompactionBytes;
+  }
+
+  public long getLiveSstFilesSize() {
+    return this.liveSstFilesSize;
+  }
+
+  public long getTotalSstFilesSize() {
+    return this.totalSstFilesSize;
+  }
+
+  public long getEstimateNumKeys() {
+    return this.estimateNumKeys;
+  }
+
+  public long getBlockCacheUsage() {
+    return this.blockCacheUsage;
+  }
+
+  public long getBlockCachePinnedUsage() {
+    return this.blockCachePinnedUsage;
+  }
+
+  public long getNumRunningCompactions() {
+    return this.numRunningCompactions;
+  }
+
+  public long getNumRunningFlushes() {
+    return this.numRunningFlushes;
+  }
+
+  public boolean isWriteStopped() {
+    return this.writeStopped;
+  }
+
+  public boolean isWriteDelayed() {
+    return this.delayedWriteRate > 0;
+  }
+
+  public long getDelayedWriteRate() {
+    return this.delayedWriteRate;
+  }
+
+  public long getNumSnapshots() {
+    return this.numSnapshots;
+  }
+
+  // Unix time in seconds of the oldest unreleased snapshot, 0 if none
+  public long getOldestSnapshotTime() {
+    return this.oldestSnapshotTime;
+  }
+
+  public long getBlockCacheHits() {
+    return this.blockCacheHits;
+  }
+
+  public long getBlockCacheMisses() {
+    return this.blockCacheMisses;
+  }
+
+  public double getBlockCacheHitRatio() {
+    var total = this.blockCacheHits + this.blockCacheMisses;
+    return (this.blockCacheHits < 0 || total == 0) ? 0 : (double) this.blockCacheHits / total;
+  }
+
+  public long getBytesWritten() {
+    return this.bytesWritten;
+  }
+
+  public long getBytesRead() {
+    return this.bytesRead;
+  }
+
+  public long getKeysWritten() {
+    return this.keysWritten;
+  }
+
+  public long getKeysRead() {
+    return this.keysRead;
+  }
+
+  public long getStallMicros() {
+    return this.stallMicros;
+  }
+
+  public long getCompactWriteBytes() {
+    return this.compactWriteBytes;
+  }
+
+  public long getFlushWriteBytes() {
+    return this.flushWriteBytes;
+  }
+
+  @Override
+  public String toString() {
+    return this.columnFamilyName + "[memTables=" + this.curSizeAllMemTables + ", pendingCompactionBytes="
+        + this.pendingCompactionBytes + ", liveSstFilesSize=" + this.liveSstFilesSize + ", estimateNumKeys="
+        + this.estimateNumKeys + ", blockCacheUsage=" + this.blockCacheUsage + ", blockCacheHitRatio="
+        + getBlockCacheHitRatio() + ", writeStopped=" + this.writeStopped + ", delayedWriteRate="
+        + this.delayedWriteRate + "]";
+  }
+}
@@ -0,0 +1,174 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.lang.System.Logger.Level;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.rocksdb.Statistics;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksStatsSampler implements AutoCloseable {
+
+  static final System.Logger LOGGER = System.getLogger(RocksStatsSampler.class.getName());
+
+  final RocksManager rocksManager;
+  final Statistics statistics;
+  final long intervalMillis;
+  final Consumer<RocksStats> listener;
+
+  // columnFamilyName -> [previous, latest]
+  final Map<String, RocksStats[]> samples = new ConcurrentHashMap<>();
+  final ScheduledExecutorService executor;
+  final AtomicLong errorCount = new AtomicLong();
+
+  private boolean _started;
+
+  public RocksStatsSampler(RocksManager rocksManager, Statistics statistics, long intervalMillis,
+      Consumer<RocksStats> listener) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    Arguments.isTrue(intervalMillis > 0, "intervalMillis is invalid.");
+
+    this.statistics = statistics;
+    this.intervalMillis = intervalMillis;
+    this.listener = listener;
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      var thread = new Thread(r, "rocks-stats-sampler");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public synchronized RocksStatsSampler start() {
+    if (this.executor.isShutdown()) {
+      throw new IllegalStateException("RocksStatsSampler is closed.");
+    }
+    if (!this._started) {
+      this.executor.scheduleAtFixedRate(this::sample, 0, this.intervalMillis, TimeUnit.MILLISECONDS);
+      this._started = true;
+    }
+    return this;
+  }
+
+  void sample() {
+    try {
+      for (String columnFamilyName : this.rocksManager.getColumnFamilyNames()) {
+        RocksStats stats;
+
+        // dropColumnFamily holds the same lock, the handle stays open while it is sampled
+        synchronized (this.rocksManager.cfLock) {
+          if (!this.rocksManager.hasColumnFamily(columnFamilyName)) {
+            continue;
+          }
+          stats = this.rocksManager.getStats(columnFamilyName, this.statistics);
+
+          this.samples.compute(columnFamilyName,
+              (n, pair) -> (pair == null) ? new RocksStats[] { null, stats } : new RocksStats[] { pair[1], stats });
+        }
+
+        if (this.listener != null) {
+          this.listener.accept(stats);
+        }
+      }
+    } catch (RuntimeException ex) {
+      // Keep the schedule running, the next sample may succeed
+      this.errorCount.incrementAndGet();
+      LOGGER.log(Level.WARNING, "Failed to sample statistics.", ex);
+    }
+  }
+
+  void remove(String columnFamilyName) {
+    this.samples.remove(columnFamilyName);
+  }
+
+  public long getErrorCount() {
+    return this.errorCount.get();
+  }
+
+  public RocksStats getLatest(String columnFamilyName) {
+    var pair = this.samples.get(columnFamilyName);
+    return (pair != null) ? pair[1] : null;
+  }
+
+  public RocksStats getPrevious(String columnFamilyName) {
+    var pair = this.samples.get(columnFamilyName);
+    return (pair != null) ? pair[0] : null;
+  }
+
+  public long getDelta(String columnFamilyName, ToLongFunction<RocksStats> metric) {
+    Arguments.notNull(metric);
+
+    var pair = this.samples.get(columnFamilyName);
+    if (pair == null || pair[0] == null) {
+      return 0;
+    }
+    return metric.applyAsLong(pair[1]) - metric.applyAsLong(pair[0]);
+  }
+
+  // Per second rate between the previous and the latest sample
+  public double getRate(String columnFamilyName, ToLongFunction<RocksStats> metric) {
+    Arguments.notNull(metric);
+
+    var pair = this.samples.get(columnFamilyName);
+    if (pair == null || pair[0] == null) {
+      return 0;
+    }
+    var elapsedNanos = pair[1].timeNanos - pair[0].timeNanos;
+    if (elapsedNanos <= 0) {
+      return 0;
+    }
+    return (metric.applyAsLong(pair[1]) - metric.applyAsLong(pair[0])) * 1_000_000_000.0 / elapsedNanos;
+  }
+
+  public double getIntervalBlockCacheHitRatio(String columnFamilyName) {
+    var hits = getDelta(columnFamilyName, RocksStats::getBlockCacheHits);
+    var total = hits + getDelta(columnFamilyName, RocksStats::getBlockCacheMisses);
+
+    return (total <= 0) ? 0 : (double) hits / total;
+  }
+
+  @Override
+  public void close() {
+    this.executor.shutdownNow();
+    try {
+      // A running sample must finish before the manager closes the database
+      this.executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    this.rocksManager.statsSamplers.remove(this);
+  }
+}
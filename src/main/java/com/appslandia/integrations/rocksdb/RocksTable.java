@@ -0,0 +1,287 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksTable<K, V> {
+
+  final RocksManager rocksManager;
+  final RocksDB rocksDB;
+  final String columnFamilyName;
+  final ColumnFamilyHandle handle;
+  final AtomicBoolean dropped;
+
+  final RocksMarshaller<K> keyMarshaller;
+  final RocksMarshaller<V> valueMarshaller;
+
+  final ReadOptions readOptions;
+  final WriteOptions writeOptions;
+
+  public RocksTable(RocksManager rocksManager, String columnFamilyName, ColumnFamilyHandle handle,
+      RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller, ReadOptions readOptions,
+      WriteOptions writeOptions) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.rocksDB = rocksManager.rocksDB;
+    this.columnFamilyName = Arguments.notNull(columnFamilyName);
+    this.handle = Arguments.notNull(handle);
+    this.dropped = rocksManager.getDroppedFlag(columnFamilyName, handle);
+
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.valueMarshaller = Arguments.notNull(valueMarshaller);
+
+    this.readOptions = Arguments.notNull(readOptions);
+    this.writeOptions = Arguments.notNull(writeOptions);
+  }
+
+  public String getColumnFamilyName() {
+    return this.columnFamilyName;
+  }
+
+  public ColumnFamilyHandle getHandle() {
+    return this.handle;
+  }
+
+  // dropColumnFamily closes the handle, a table must not be used once its column family is dropped
+  ColumnFamilyHandle checkHandle() {
+    if (this.dropped.get()) {
+      throw new IllegalStateException("columnFamilyName is dropped: " + this.columnFamilyName);
+    }
+    return this.handle;
+  }
+
+  public RocksMarshaller<K> getKeyMarshaller() {
+    return this.keyMarshaller;
+  }
+
+  public RocksMarshaller<V> getValueMarshaller() {
+    return this.valueMarshaller;
+  }
+
+  public V get(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    // Custom ReadOptions may carry a snapshot, the cache is only used with the default ReadOptions
+    var cache = (this.readOptions == this.rocksManager.readOptions) ? this.rocksManager.getCache(this.columnFamilyName)
+        : null;
+
+    if (cache == null && this.keyMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      var scratch = RocksScratch.get();
+      var keyBuffer = scratch.key(key, this.keyMarshaller);
+      var keySize = keyBuffer.remaining();
+      var startNanos = this.rocksManager.startNanos();
+
+      var valueBuffer = scratch.get(this.rocksDB, checkHandle(), this.readOptions, keyBuffer);
+      this.rocksManager.record(this.columnFamilyName, RocksOp.GET, startNanos,
+          keySize + ((valueBuffer != null) ? valueBuffer.remaining() : 0));
+      return (valueBuffer != null) ? this.valueMarshaller.unmarshal(valueBuffer) : null;
+    }
+
+    var keyBytes = this.keyMarshaller.marshal(key);
+    var startNanos = this.rocksManager.startNanos();
+    byte[] value = null;
+
+    if (cache == null) {
+      value = this.rocksDB.get(checkHandle(), this.readOptions, keyBytes);
+    } else {
+      value = cache.peek(keyBytes);
+      if (value == null) {
+        var stamp = cache.stamp(keyBytes);
+        value = this.rocksDB.get(checkHandle(), this.readOptions, keyBytes);
+
+        cache.put(keyBytes, value, stamp);
+      } else if (value == RocksCache.NULL_VALUE) {
+        value = null;
+      }
+    }
+    this.rocksManager.record(this.columnFamilyName, RocksOp.GET, startNanos,
+        keyBytes.length + ((value != null) ? value.length : 0));
+    return (value != null) ? this.valueMarshaller.unmarshal(value) : null;
+  }
+
+  public List<V> multiGet(List<K> keys) throws RocksDBException {
+    Arguments.notNull(keys);
+
+    var keyList = RocksUtils.marshal(keys, this.keyMarshaller);
+    var startNanos = this.rocksManager.startNanos();
+
+    var handles = Collections.nCopies(keys.size(), checkHandle());
+    var values = this.rocksDB.multiGetAsList(this.readOptions, handles, keyList);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.MULTI_GET, startNanos,
+        RocksUtils.sizeOf(keyList) + RocksUtils.sizeOf(values));
+    return RocksUtils.unmarshal(values, this.valueMarshaller);
+  }
+
+  public boolean keyExists(K key) {
+    Arguments.notNull(key);
+
+    if (this.keyMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      return this.rocksDB.keyExists(checkHandle(), this.readOptions, RocksScratch.get().key(key, this.keyMarshaller));
+    }
+    return this.rocksDB.keyExists(checkHandle(), this.readOptions, this.keyMarshaller.marshal(key));
+  }
+
+  public void put(K key, V value) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    if (this.keyMarshaller.isBufferSupported() && this.valueMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      var scratch = RocksScratch.get();
+      var keyBuffer = scratch.key(key, this.keyMarshaller);
+      var valueBuffer = scratch.value(value, this.valueMarshaller);
+
+      var cacheKey = this.rocksManager.cacheKey(this.columnFamilyName, keyBuffer);
+      var bytes = keyBuffer.remaining() + valueBuffer.remaining();
+      var startNanos = this.rocksManager.startNanos();
+
+      this.rocksDB.put(checkHandle(), this.writeOptions, keyBuffer, valueBuffer);
+      this.rocksManager.invalidateCache(this.columnFamilyName, cacheKey);
+      this.rocksManager.record(this.columnFamilyName, RocksOp.PUT, startNanos, bytes);
+      return;
+    }
+
+    var keyBytes = this.keyMarshaller.marshal(key);
+    var valueBytes = this.valueMarshaller.marshal(value);
+    var startNanos = this.rocksManager.startNanos();
+
+    this.rocksDB.put(checkHandle(), this.writeOptions, keyBytes, valueBytes);
+    this.rocksManager.invalidateCache(this.columnFamilyName, keyBytes);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.PUT, startNanos, keyBytes.length + valueBytes.length);
+  }
+
+  public void merge(K key, V value) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+
+    if (this.keyMarshaller.isBufferSupported() && this.valueMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      var scratch = RocksScratch.get();
+      var keyBuffer = scratch.key(key, this.keyMarshaller);
+      var valueBuffer = scratch.value(value, this.valueMarshaller);
+
+      var cacheKey = this.rocksManager.cacheKey(this.columnFamilyName, keyBuffer);
+      var bytes = keyBuffer.remaining() + valueBuffer.remaining();
+      var startNanos = this.rocksManager.startNanos();
+
+      this.rocksDB.merge(checkHandle(), this.writeOptions, keyBuffer, valueBuffer);
+      this.rocksManager.invalidateCache(this.columnFamilyName, cacheKey);
+      this.rocksManager.record(this.columnFamilyName, RocksOp.MERGE, startNanos, bytes);
+      return;
+    }
+
+    var keyBytes = this.keyMarshaller.marshal(key);
+    var valueBytes = this.valueMarshaller.marshal(value);
+    var startNanos = this.rocksManager.startNanos();
+
+    this.rocksDB.merge(checkHandle(), this.writeOptions, keyBytes, valueBytes);
+    this.rocksManager.invalidateCache(this.columnFamilyName, keyBytes);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.MERGE, startNanos, keyBytes.length + valueBytes.length);
+  }
+
+  public void delete(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    if (this.keyMarshaller.isBufferSupported() && RocksScratch.isPooled()) {
+      var keyBuffer = RocksScratch.get().key(key, this.keyMarshaller);
+      var cacheKey = this.rocksManager.cacheKey(this.columnFamilyName, keyBuffer);
+      var bytes = keyBuffer.remaining();
+      var startNanos = this.rocksManager.startNanos();
+
+      this.rocksDB.delete(checkHandle(), this.writeOptions, keyBuffer);
+      this.rocksManager.invalidateCache(this.columnFamilyName, cacheKey);
+      this.rocksManager.record(this.columnFamilyName, RocksOp.DELETE, startNanos, bytes);
+      return;
+    }
+
+    var keyBytes = this.keyMarshaller.marshal(key);
+    var startNanos = this.rocksManager.startNanos();
+
+    this.rocksDB.delete(checkHandle(), this.writeOptions, keyBytes);
+    this.rocksManager.invalidateCache(this.columnFamilyName, keyBytes);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.DELETE, startNanos, keyBytes.length);
+  }
+
+  public void singleDelete(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    var keyBytes = this.keyMarshaller.marshal(key);
+    var startNanos = this.rocksManager.startNanos();
+
+    this.rocksDB.singleDelete(checkHandle(), this.writeOptions, keyBytes);
+    this.rocksManager.invalidateCache(this.columnFamilyName, keyBytes);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.SINGLE_DELETE, startNanos, keyBytes.length);
+  }
+
+  public void deleteRange(K fromKey, K toKey) throws RocksDBException {
+    Arguments.notNull(fromKey);
+    Arguments.notNull(toKey);
+
+    var fromBytes = this.keyMarshaller.marshal(fromKey);
+    var toBytes = this.keyMarshaller.marshal(toKey);
+    var startNanos = this.rocksManager.startNanos();
+
+    this.rocksDB.deleteRange(checkHandle(), this.writeOptions, fromBytes, toBytes);
+    this.rocksManager.invalidateCache(this.columnFamilyName, null);
+    this.rocksManager.record(this.columnFamilyName, RocksOp.DELETE_RANGE, startNanos,
+        fromBytes.length + toBytes.length);
+  }
+
+  public RocksEntryIterator<K, V> scan() {
+    return scan(null, null, null);
+  }
+
+  public RocksEntryIterator<K, V> scan(K lowerKey, K upperKey) {
+    return scan(lowerKey, upperKey, null);
+  }
+
+  public RocksEntryIterator<K, V> scan(K lowerKey, K upperKey, Function<K, Boolean> keyFilter) {
+    var resources = new RocksCloseable();
+    try {
+      var readOptions = RocksManager.newBoundedReadOptions(
+          (lowerKey != null) ? this.keyMarshaller.marshal(lowerKey) : null,
+          (upperKey != null) ? this.keyMarshaller.marshal(upperKey) : null, this.readOptions, resources);
+
+      var rocksIterator = this.rocksDB.newIterator(checkHandle(), readOptions);
+
+      return this.rocksManager.withMetrics(new RocksEntryIterator<>(rocksIterator, this.keyMarshaller,
+          this.valueMarshaller, null, null, null, keyFilter, resources), this.columnFamilyName);
+
+    } catch (RuntimeException ex) {
+      resources.close();
+      throw ex;
+    }
+  }
+}
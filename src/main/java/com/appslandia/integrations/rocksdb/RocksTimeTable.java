@@ -0,0 +1,283 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksTimeTable<K, V> {
+
+  static final String WINDOW_SEPARATOR = "@";
+  static final DateTimeFormatter WINDOW_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm")
+      .withZone(ZoneOffset.UTC);
+
+  public static final Duration HOURLY = Duration.ofHours(1);
+  public static final Duration DAILY = Duration.ofDays(1);
+
+  final RocksManager rocksManager;
+  final String tableName;
+  final long windowMillis;
+  final int retention;
+
+  final RocksMarshaller<K> keyMarshaller;
+  final RocksMarshaller<V> valueMarshaller;
+  final Supplier<ColumnFamilyOptions> optionsFactory;
+  final WriteOptions writeOptions;
+  final Clock clock;
+
+  // Window start millis -> table, dropping a window takes the write lock
+  final ConcurrentSkipListMap<Long, RocksTable<K, V>> windows = new ConcurrentSkipListMap<>();
+  final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public RocksTimeTable(RocksManager rocksManager, String tableName, Duration window, int retention,
+      RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      Supplier<ColumnFamilyOptions> optionsFactory, WriteOptions writeOptions, Clock clock) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.tableName = Arguments.notNull(tableName);
+
+    Arguments.notNull(window);
+    Arguments.isTrue(window.toMillis() >= 60_000 && window.toMillis() % 60_000 == 0, "window is invalid.");
+    Arguments.isTrue(retention > 0, "retention is invalid.");
+
+    this.windowMillis = window.toMillis();
+    this.retention = retention;
+
+    this.keyMarshaller = Arguments.notNull(keyMarshaller);
+    this.valueMarshaller = Arguments.notNull(valueMarshaller);
+    this.optionsFactory = Arguments.notNull(optionsFactory);
+    this.writeOptions = writeOptions;
+    this.clock = Arguments.notNull(clock);
+
+    // Windows created before a restart are opened as regular column families
+    for (String cfName : rocksManager.getColumnFamilyNames()) {
+      var windowStart = parseWindowStart(tableName, cfName);
+      if (windowStart != null) {
+        this.windows.put(windowStart, rocksManager.table(cfName, keyMarshaller, valueMarshaller, null, writeOptions));
+      }
+    }
+  }
+
+  public String getTableName() {
+    return this.tableName;
+  }
+
+  public Duration getWindow() {
+    return Duration.ofMillis(this.windowMillis);
+  }
+
+  public int getRetention() {
+    return this.retention;
+  }
+
+  // Newest first
+  public List<String> getWindowNames() {
+    List<String> names = new ArrayList<>(this.windows.size());
+    for (RocksTable<K, V> table : this.windows.descendingMap().values()) {
+      names.add(table.getColumnFamilyName());
+    }
+    return names;
+  }
+
+  public V get(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    this.lock.readLock().lock();
+    try {
+      for (RocksTable<K, V> table : this.windows.descendingMap().values()) {
+        var value = table.get(key);
+        if (value != null) {
+          return value;
+        }
+      }
+      return null;
+
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  public V get(Instant time, K key) throws RocksDBException {
+    Arguments.notNull(time);
+    Arguments.notNull(key);
+
+    this.lock.readLock().lock();
+    try {
+      var table = this.windows.get(windowStart(time.toEpochMilli()));
+      return (table != null) ? table.get(key) : null;
+
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  public void put(K key, V value) throws RocksDBException {
+    put(this.clock.instant(), key, value);
+  }
+
+  public void put(Instant time, K key, V value) throws RocksDBException {
+    Arguments.notNull(time);
+
+    this.lock.readLock().lock();
+    try {
+      getOrCreateWindow(time.toEpochMilli()).put(key, value);
+
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  public void delete(K key) throws RocksDBException {
+    Arguments.notNull(key);
+
+    this.lock.readLock().lock();
+    try {
+      for (RocksTable<K, V> table : this.windows.values()) {
+        table.delete(key);
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  // Windows are visited oldest first, entries of each window in key order
+  public void scan(K lowerKey, K upperKey, RocksConsumer<RocksEntry<K, V>> consumer) throws RocksDBException {
+    Arguments.notNull(consumer);
+
+    this.lock.readLock().lock();
+    try {
+      for (RocksTable<K, V> table : this.windows.values()) {
+        try (var iterator = table.scan(lowerKey, upperKey)) {
+          while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+          }
+        }
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  // Creates the current and next windows ahead of the writes, then drops the expired ones
+  public int rotate() throws RocksDBException {
+    var nowMillis = this.clock.millis();
+
+    this.lock.readLock().lock();
+    try {
+      getOrCreateWindow(nowMillis);
+      getOrCreateWindow(nowMillis + this.windowMillis);
+
+    } finally {
+      this.lock.readLock().unlock();
+    }
+    return expire();
+  }
+
+  public int expire() throws RocksDBException {
+    var minWindowStart = minWindowStart(this.clock.millis());
+    var dropped = 0;
+
+    this.lock.writeLock().lock();
+    try {
+      var expired = this.windows.headMap(minWindowStart);
+      while (!expired.isEmpty()) {
+        var entry = expired.firstEntry();
+
+        this.rocksManager.dropColumnFamily(entry.getValue().getColumnFamilyName());
+        this.windows.remove(entry.getKey());
+        dropped++;
+      }
+      return dropped;
+
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  private RocksTable<K, V> getOrCreateWindow(long timeMillis) throws RocksDBException {
+    var windowStart = windowStart(timeMillis);
+    var table = this.windows.get(windowStart);
+    if (table != null) {
+      return table;
+    }
+    Arguments.isTrue(windowStart >= minWindowStart(this.clock.millis()), "time is expired.");
+
+    synchronized (this.windows) {
+      table = this.windows.get(windowStart);
+      if (table == null) {
+        var cfName = windowName(this.tableName, windowStart);
+
+        this.rocksManager.createColumnFamily(cfName, this.optionsFactory.get());
+        table = this.rocksManager.table(cfName, this.keyMarshaller, this.valueMarshaller, null, this.writeOptions);
+        this.windows.put(windowStart, table);
+      }
+      return table;
+    }
+  }
+
+  private long windowStart(long timeMillis) {
+    return Math.floorDiv(timeMillis, this.windowMillis) * this.windowMillis;
+  }
+
+  private long minWindowStart(long nowMillis) {
+    return windowStart(nowMillis) - (this.retention - 1) * this.windowMillis;
+  }
+
+  public static String windowName(String tableName, long windowStart) {
+    return tableName + WINDOW_SEPARATOR + WINDOW_FORMATTER.format(Instant.ofEpochMilli(windowStart));
+  }
+
+  public static boolean isWindowOf(String tableName, String cfName) {
+    return parseWindowStart(tableName, cfName) != null;
+  }
+
+  static Long parseWindowStart(String tableName, String cfName) {
+    var prefix = tableName + WINDOW_SEPARATOR;
+    if (!cfName.startsWith(prefix)) {
+      return null;
+    }
+    try {
+      return WINDOW_FORMATTER.parse(cfName.substring(prefix.length()), Instant::from).toEpochMilli();
+
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Transaction;
+
+import com.appslandia.common.utils.Arguments;
+import com.appslandia.common.utils.ValueUtils;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksTran {
+
+  final RocksManager rocksManager;
+  final Transaction transaction;
+  final ReadOptions readOptions;
+  final List<RocksBatch.CacheKey> cacheKeys = new ArrayList<>();
+
+  public RocksTran(RocksManager rocksManager, Transaction transaction, ReadOptions readOptions) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    this.transaction = Arguments.notNull(transaction);
+    this.readOptions = Arguments.notNull(readOptions);
+  }
+
+  public Transaction getTransaction() {
+    return this.transaction;
+  }
+
+  // Reads see the state at this point, writes are validated against it
+  public void setSnapshot() {
+    this.transaction.setSnapshot();
+  }
+
+  public byte[] get(String key) throws RocksDBException {
+    return get(key, null);
+  }
+
+  public byte[] get(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return get(RocksUtils.marshal(key), columnFamilyName);
+  }
+
+  public byte[] get(byte[] key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    return this.transaction.get(this.readOptions, this.rocksManager.getHandle(columnFamilyName), key);
+  }
+
+  public <K, V> V get(K key, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var value = get(keyMarshaller.marshal(key), columnFamilyName);
+    return (value != null) ? valueMarshaller.unmarshal(value) : null;
+  }
+
+  public byte[] getForUpdate(String key) throws RocksDBException {
+    return getForUpdate(key, null);
+  }
+
+  public byte[] getForUpdate(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return getForUpdate(RocksUtils.marshal(key), columnFamilyName, true);
+  }
+
+  public byte[] getForUpdate(byte[] key, String columnFamilyName, boolean exclusive) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    return this.transaction.getForUpdate(this.readOptions, this.rocksManager.getHandle(columnFamilyName), key,
+        exclusive);
+  }
+
+  public <K, V> V getForUpdate(K key, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var value = getForUpdate(keyMarshaller.marshal(key), columnFamilyName, true);
+    return (value != null) ? valueMarshaller.unmarshal(value) : null;
+  }
+
+  public void put(String key, byte[] value) throws RocksDBException {
+    put(key, value, null);
+  }
+
+  public void put(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    put(RocksUtils.marshal(key), value, columnFamilyName);
+  }
+
+  public void put(byte[] key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.transaction.put(this.rocksManager.getHandle(columnFamilyName), key, value);
+    written(columnFamilyName, key);
+  }
+
+  public <K, V> void put(K key, V value, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    put(keyMarshaller.marshal(key), valueMarshaller.marshal(value), columnFamilyName);
+  }
+
+  public void merge(String key, byte[] value) throws RocksDBException {
+    merge(key, value, null);
+  }
+
+  public void merge(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    merge(RocksUtils.marshal(key), value, columnFamilyName);
+  }
+
+  public void merge(byte[] key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.transaction.merge(this.rocksManager.getHandle(columnFamilyName), key, value);
+    written(columnFamilyName, key);
+  }
+
+  public void delete(String key) throws RocksDBException {
+    delete(key, null);
+  }
+
+  public void delete(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    delete(RocksUtils.marshal(key), columnFamilyName);
+  }
+
+  public void delete(byte[] key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    columnFamilyName = ValueUtils.valueOrAlt(columnFamilyName, RocksManager.DEFAULT_COLUMN_FAMILY);
+
+    this.transaction.delete(this.rocksManager.getHandle(columnFamilyName), key);
+    written(columnFamilyName, key);
+  }
+
+  public <K> void delete(K key, RocksMarshaller<K> keyMarshaller, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+
+    delete(keyMarshaller.marshal(key), columnFamilyName);
+  }
+
+  private void written(String columnFamilyName, byte[] key) {
+    // Copied, the caller may reuse its key array before commit
+    if (this.rocksManager.getCache(columnFamilyName) != null) {
+      this.cacheKeys.add(new RocksBatch.CacheKey(columnFamilyName, key.clone()));
+    }
+  }
+
+  void committed() {
+    for (RocksBatch.CacheKey cacheKey : this.cacheKeys) {
+      this.rocksManager.invalidateCache(cacheKey.columnFamilyName, cacheKey.key);
+    }
+    this.cacheKeys.clear();
+  }
+}
@@ -0,0 +1,256 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.OptimisticTransactionOptions;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+import org.rocksdb.Transaction;
+import org.rocksdb.TransactionDB;
+import org.rocksdb.TransactionOptions;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class RocksTranExecutor implements AutoCloseable {
+
+  public static final int DEFAULT_MAX_RETRIES = 10;
+  public static final long DEFAULT_MIN_BACKOFF_MICROS = 100;
+  public static final long DEFAULT_MAX_BACKOFF_MICROS = 100_000;
+
+  final RocksManager rocksManager;
+  final TransactionDB tranDB;
+  final OptimisticTransactionDB optimisticTranDB;
+
+  final WriteOptions writeOptions;
+  final ReadOptions readOptions;
+  final TransactionOptions tranOptions;
+  final OptimisticTransactionOptions optimisticTranOptions;
+
+  final int maxRetries;
+  final long minBackoffNanos;
+  final long maxBackoffNanos;
+
+  // Finished transactions are reused by beginTransaction(..., oldTxn)
+  final ConcurrentLinkedQueue<Transaction> transactions = new ConcurrentLinkedQueue<>();
+
+  final LongAdder commitCount = new LongAdder();
+  final LongAdder conflictCount = new LongAdder();
+  final LongAdder retryCount = new LongAdder();
+  final LongAdder exhaustedCount = new LongAdder();
+  final LongAdder failureCount = new LongAdder();
+
+  private volatile boolean _closed;
+
+  public RocksTranExecutor(RocksManager rocksManager, WriteOptions writeOptions, int maxRetries,
+      long minBackoffMicros, long maxBackoffMicros) {
+    this.rocksManager = Arguments.notNull(rocksManager);
+    Arguments.isTrue(maxRetries >= 0, "maxRetries is invalid.");
+    Arguments.isTrue(minBackoffMicros >= 0, "minBackoffMicros is invalid.");
+    Arguments.isTrue(maxBackoffMicros >= minBackoffMicros, "maxBackoffMicros is invalid.");
+
+    if (rocksManager.rocksDB instanceof TransactionDB db) {
+      this.tranDB = db;
+      this.optimisticTranDB = null;
+      this.tranOptions = new TransactionOptions();
+      this.optimisticTranOptions = null;
+
+    } else if (rocksManager.rocksDB instanceof OptimisticTransactionDB db) {
+      this.tranDB = null;
+      this.optimisticTranDB = db;
+      this.tranOptions = null;
+      this.optimisticTranOptions = new OptimisticTransactionOptions();
+
+    } else {
+      throw new IllegalStateException("rocksDB is not an instance of TransactionDB or OptimisticTransactionDB.");
+    }
+
+    this.writeOptions = (writeOptions != null) ? writeOptions : rocksManager.writeOptions;
+    this.readOptions = rocksManager.readOptions;
+    this.maxRetries = maxRetries;
+    this.minBackoffNanos = TimeUnit.MICROSECONDS.toNanos(minBackoffMicros);
+    this.maxBackoffNanos = TimeUnit.MICROSECONDS.toNanos(maxBackoffMicros);
+  }
+
+  public void run(RocksConsumer<RocksTran> consumer) throws RocksDBException {
+    Arguments.notNull(consumer);
+
+    execute(tran -> {
+      consumer.accept(tran);
+      return null;
+    });
+  }
+
+  public <R> R execute(RocksFunction<RocksTran, R> function) throws RocksDBException {
+    Arguments.notNull(function);
+    if (this._closed) {
+      throw new IllegalStateException("RocksTranExecutor is closed.");
+    }
+
+    var transaction = begin(this.transactions.poll());
+    try {
+      var attempt = 0;
+      while (true) {
+        var tran = new RocksTran(this.rocksManager, transaction, this.readOptions);
+        try {
+          var result = function.apply(tran);
+          transaction.commit();
+
+          tran.committed();
+          this.commitCount.increment();
+          return result;
+
+        } catch (RocksDBException ex) {
+          rollbackQuietly(transaction);
+
+          if (!isRetryable(ex)) {
+            this.failureCount.increment();
+            throw ex;
+          }
+          this.conflictCount.increment();
+
+          if (attempt >= this.maxRetries) {
+            this.exhaustedCount.increment();
+            throw ex;
+          }
+          attempt++;
+          this.retryCount.increment();
+
+          backoff(attempt);
+          transaction = begin(transaction);
+
+        } catch (Throwable ex) {
+          // Errors and sneaky-thrown checked exceptions must not leave the transaction open
+          rollbackQuietly(transaction);
+          this.failureCount.increment();
+          throw ex;
+        }
+      }
+    } finally {
+      release(transaction);
+    }
+  }
+
+  private Transaction begin(Transaction oldTransaction) {
+    if (this.tranDB != null) {
+      return (oldTransaction != null)
+          ? this.tranDB.beginTransaction(this.writeOptions, this.tranOptions, oldTransaction)
+          : this.tranDB.beginTransaction(this.writeOptions, this.tranOptions);
+    }
+    return (oldTransaction != null)
+        ? this.optimisticTranDB.beginTransaction(this.writeOptions, this.optimisticTranOptions, oldTransaction)
+        : this.optimisticTranDB.beginTransaction(this.writeOptions, this.optimisticTranOptions);
+  }
+
+  private void release(Transaction transaction) {
+    if (this._closed) {
+      transaction.close();
+      return;
+    }
+    this.transactions.offer(transaction);
+
+    // close() may have drained the queue between the check and the offer
+    if (this._closed && this.transactions.remove(transaction)) {
+      transaction.close();
+    }
+  }
+
+  // Full jitter: a random delay up to min(maxBackoff, minBackoff * 2^(attempt - 1))
+  private void backoff(int attempt) {
+    var ceiling = this.minBackoffNanos << Math.min(attempt - 1, 30);
+    if (ceiling <= 0 || ceiling > this.maxBackoffNanos) {
+      ceiling = this.maxBackoffNanos;
+    }
+    if (ceiling > 0) {
+      LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+  }
+
+  // TimedOut is a pessimistic lock wait that expired, the holder may have finished by the next attempt
+  static boolean isRetryable(RocksDBException ex) {
+    var status = ex.getStatus();
+    if (status == null) {
+      return false;
+    }
+    switch (status.getCode()) {
+    case Busy:
+    case TryAgain:
+    case TimedOut:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  static void rollbackQuietly(Transaction transaction) {
+    try {
+      transaction.rollback();
+    } catch (RocksDBException | RuntimeException ex) {
+      // Ignore, keep the original failure
+    }
+  }
+
+  public long getCommitCount() {
+    return this.commitCount.sum();
+  }
+
+  // Busy/TryAgain/TimedOut results, including the ones that exhausted the retry budget
+  public long getConflictCount() {
+    return this.conflictCount.sum();
+  }
+
+  public long getRetryCount() {
+    return this.retryCount.sum();
+  }
+
+  public long getExhaustedCount() {
+    return this.exhaustedCount.sum();
+  }
+
+  public long getFailureCount() {
+    return this.failureCount.sum();
+  }
+
+  @Override
+  public void close() {
+    this._closed = true;
+
+    Transaction transaction;
+    while ((transaction = this.transactions.poll()) != null) {
+      transaction.close();
+    }
+    RocksUtils.closeQuietly(this.tranOptions);
+    RocksUtils.closeQuietly(this.optimisticTranOptions);
+  }
+}
@@ -21,18 +21,29 @@
 package com.appslandia.integrations.rocksdb;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.FlushOptions;
+import org.rocksdb.LiveFileMetaData;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.TransactionDBOptions;
 import org.rocksdb.WriteOptions;
 
+import com.appslandia.common.utils.Arguments;
+
 /**
  *
  * @author Loc Ha
@@ -64,6 +75,11 @@ public class RocksUtils {
     return new ColumnFamilyOptions();
   }
 
+  // Workload-tuned options, every native object created is registered with rocksCloseable
+  public static RocksPreset newPreset(RocksPreset.Workload workload, RocksCloseable rocksCloseable) {
+    return new RocksPreset(workload, rocksCloseable);
+  }
+
   public static ReadOptions newReadOptions() {
     return new ReadOptions();
   }
@@ -84,6 +100,138 @@ public class RocksUtils {
     return new String(keyOrName, StandardCharsets.UTF_8);
   }
 
+  // UTF-8 length as String.getBytes(UTF_8), an unpaired surrogate is encoded as '?'
+  static int utf8Length(String value) {
+    var length = 0;
+    for (var idx = 0; idx < value.length(); idx++) {
+      var c = value.charAt(idx);
+
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && idx + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(idx + 1))) {
+        length += 4;
+        idx++;
+      } else if (Character.isSurrogate(c)) {
+        length++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  // Escaping writes 0x00 as 0x00 0xFF
+  static int writeUtf8(String value, byte[] dest, int offset, boolean escapeZero) {
+    for (var idx = 0; idx < value.length(); idx++) {
+      var c = value.charAt(idx);
+
+      if (c < 0x80) {
+        dest[offset++] = (byte) c;
+        if (c == 0 && escapeZero) {
+          dest[offset++] = (byte) 0xFF;
+        }
+      } else if (c < 0x800) {
+        dest[offset++] = (byte) (0xC0 | (c >> 6));
+        dest[offset++] = (byte) (0x80 | (c & 0x3F));
+
+      } else if (Character.isHighSurrogate(c) && idx + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(idx + 1))) {
+        var cp = Character.toCodePoint(c, value.charAt(++idx));
+        dest[offset++] = (byte) (0xF0 | (cp >> 18));
+        dest[offset++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        dest[offset++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        dest[offset++] = (byte) (0x80 | (cp & 0x3F));
+
+      } else if (Character.isSurrogate(c)) {
+        dest[offset++] = '?';
+      } else {
+        dest[offset++] = (byte) (0xE0 | (c >> 12));
+        dest[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        dest[offset++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return offset;
+  }
+
+  public static List<byte[]> marshal(List<String> keysOrNames) {
+    List<byte[]> list = new ArrayList<>(keysOrNames.size());
+    for (String keyOrName : keysOrNames) {
+      list.add(marshal(keyOrName));
+    }
+    return list;
+  }
+
+  public static <T> List<byte[]> marshal(List<T> values, RocksMarshaller<T> marshaller) {
+    List<byte[]> list = new ArrayList<>(values.size());
+    for (T value : values) {
+      list.add(marshaller.marshal(value));
+    }
+    return list;
+  }
+
+  public static <T> List<T> unmarshal(List<byte[]> values, RocksMarshaller<T> marshaller) {
+    List<T> list = new ArrayList<>(values.size());
+    for (byte[] value : values) {
+      list.add((value != null) ? marshaller.unmarshal(value) : null);
+    }
+    return list;
+  }
+
+  public static long sizeOf(List<byte[]> values) {
+    long size = 0;
+    for (byte[] value : values) {
+      if (value != null) {
+        size += value.length;
+      }
+    }
+    return size;
+  }
+
+  public static byte[] nextPrefix(byte[] prefix) {
+    for (var idx = prefix.length - 1; idx >= 0; idx--) {
+      if (prefix[idx] != (byte) 0xFF) {
+
+        var next = Arrays.copyOf(prefix, idx + 1);
+        next[idx]++;
+        return next;
+      }
+    }
+    return null;
+  }
+
+  public static List<byte[]> getSplitKeys(List<LiveFileMetaData> files, String cfName, int partitions) {
+    var cfFiles = new ArrayList<LiveFileMetaData>();
+    long totalSize = 0;
+
+    for (LiveFileMetaData file : files) {
+      if (cfName.equals(unmarshal(file.columnFamilyName()))) {
+        cfFiles.add(file);
+        totalSize += file.size();
+      }
+    }
+    cfFiles.sort((f1, f2) -> Arrays.compareUnsigned(f1.smallestKey(), f2.smallestKey()));
+
+    // Pick the SST start keys closest to each partition boundary by size
+    List<byte[]> splitKeys = new ArrayList<>(partitions);
+    var partitionSize = Math.max(totalSize / partitions, 1);
+    long accSize = 0;
+
+    for (LiveFileMetaData file : cfFiles) {
+      if (accSize >= partitionSize * (splitKeys.size() + 1)) {
+        var key = file.smallestKey();
+
+        if (splitKeys.isEmpty() || Arrays.compareUnsigned(splitKeys.get(splitKeys.size() - 1), key) < 0) {
+          splitKeys.add(key);
+        }
+      }
+      accSize += file.size();
+    }
+    return splitKeys;
+  }
+
   public static String getCfDescriptorName(ColumnFamilyDescriptor descriptor) {
     return unmarshal(descriptor.getName());
   }
@@ -102,6 +250,95 @@ public class RocksUtils {
         : new ColumnFamilyDescriptor(marshal(cfName));
   }
 
+  // Column families created at runtime must be listed again when the DB is reopened
+  public static List<String> listCfNames(String rocksDbDir) throws RocksDBException {
+    Arguments.notNull(rocksDbDir);
+
+    if (!Files.exists(Path.of(rocksDbDir, "CURRENT"))) {
+      return new ArrayList<>();
+    }
+    try (var options = new Options()) {
+      List<String> cfNames = new ArrayList<>();
+
+      for (byte[] cfName : RocksDB.listColumnFamilies(options, rocksDbDir)) {
+        cfNames.add(unmarshal(cfName));
+      }
+      return cfNames;
+    }
+  }
+
+  public static final double DEFAULT_MEMTABLE_PREFIX_BLOOM_RATIO = 0.1;
+  public static final int DEFAULT_BLOOM_BITS_PER_KEY = 10;
+
+  public static ColumnFamilyOptions useFixedPrefix(ColumnFamilyOptions options, int prefixLength,
+      RocksCloseable rocksCloseable) {
+    Arguments.notNull(options);
+    Arguments.isTrue(prefixLength > 0, "prefixLength is invalid.");
+
+    options.useFixedLengthPrefixExtractor(prefixLength);
+    return usePrefixBloom(options, rocksCloseable);
+  }
+
+  public static ColumnFamilyOptions useCappedPrefix(ColumnFamilyOptions options, int prefixLength,
+      RocksCloseable rocksCloseable) {
+    Arguments.notNull(options);
+    Arguments.isTrue(prefixLength > 0, "prefixLength is invalid.");
+
+    options.useCappedPrefixExtractor(prefixLength);
+    return usePrefixBloom(options, rocksCloseable);
+  }
+
+  static ColumnFamilyOptions usePrefixBloom(ColumnFamilyOptions options, RocksCloseable rocksCloseable) {
+    Arguments.notNull(rocksCloseable);
+
+    var bloomFilter = new BloomFilter(DEFAULT_BLOOM_BITS_PER_KEY);
+    rocksCloseable.add(bloomFilter);
+
+    // SST filters also index the prefixes produced by the prefix extractor
+    var tableConfig = (options.tableFormatConfig() instanceof BlockBasedTableConfig config) ? config
+        : new BlockBasedTableConfig();
+    tableConfig.setFilterPolicy(bloomFilter);
+
+    options.setTableFormatConfig(tableConfig);
+    options.setMemtablePrefixBloomSizeRatio(DEFAULT_MEMTABLE_PREFIX_BLOOM_RATIO);
+    return options;
+  }
+
+  public static final String UINT64_ADD_OPERATOR = "uint64add";
+  public static final String MAX_OPERATOR = "max";
+
+  // Merges 8-byte little-endian values by unsigned 64-bit addition, see encodeUInt64
+  public static ColumnFamilyOptions useUInt64AddOperator(ColumnFamilyOptions options) {
+    Arguments.notNull(options);
+
+    return options.setMergeOperatorName(UINT64_ADD_OPERATOR);
+  }
+
+  // Keeps the bytewise greatest value, use an order-preserving codec such as RocksKeyCodecs.TYPE_LONG
+  public static ColumnFamilyOptions useMaxOperator(ColumnFamilyOptions options) {
+    Arguments.notNull(options);
+
+    return options.setMergeOperatorName(MAX_OPERATOR);
+  }
+
+  public static byte[] encodeUInt64(long value) {
+    var bytes = new byte[8];
+    for (var idx = 0; idx < 8; idx++) {
+      bytes[idx] = (byte) (value >>> (idx * 8));
+    }
+    return bytes;
+  }
+
+  public static long decodeUInt64(byte[] value) {
+    Arguments.isTrue(value.length == 8, "value must have 8 bytes.");
+
+    long result = 0;
+    for (var idx = 7; idx >= 0; idx--) {
+      result = (result << 8) | (value[idx] & 0xff);
+    }
+    return result;
+  }
+
   public static void closeQuietly(AutoCloseable closeable) {
     if (closeable != null) {
       try {
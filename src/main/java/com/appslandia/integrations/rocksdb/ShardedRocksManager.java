@@ -0,0 +1,497 @@
+// The MIT License (MIT)
+// Copyright © 2015 Loc Ha
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.integrations.rocksdb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteOptions;
+
+import com.appslandia.common.utils.Arguments;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+public class ShardedRocksManager implements AutoCloseable {
+
+  final List<RocksManager> shards;
+  final RocksShardRouter router;
+
+  // Fans out multi-shard reads, null with a single shard
+  final ExecutorService executor;
+
+  public ShardedRocksManager(List<RocksManager> shards, RocksShardRouter router) {
+    Arguments.hasElements(shards);
+
+    this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    this.router = Arguments.notNull(router);
+    this.executor = (shards.size() > 1) ? newExecutor(shards.size()) : null;
+  }
+
+  public int getShardCount() {
+    return this.shards.size();
+  }
+
+  public RocksManager getShard(int index) {
+    return this.shards.get(index);
+  }
+
+  public List<RocksManager> getShards() {
+    return this.shards;
+  }
+
+  public int shardIndexOf(byte[] key) {
+    Arguments.notNull(key);
+
+    var index = this.router.shardOf(key, this.shards.size());
+    if (index < 0 || index >= this.shards.size()) {
+      throw new IllegalStateException("shard index is invalid: " + index);
+    }
+    return index;
+  }
+
+  public RocksManager shardOf(byte[] key) {
+    return this.shards.get(shardIndexOf(key));
+  }
+
+  // -------------------- Column families -------------------- //
+
+  public Set<String> getColumnFamilyNames() {
+    return this.shards.get(0).getColumnFamilyNames();
+  }
+
+  public void createColumnFamily(String columnFamilyName, Supplier<ColumnFamilyOptions> optionsFactory)
+      throws RocksDBException {
+    Arguments.notNull(optionsFactory);
+
+    // Each shard owns and closes its own options
+    for (RocksManager shard : this.shards) {
+      shard.createColumnFamily(columnFamilyName, optionsFactory.get());
+    }
+  }
+
+  public void dropColumnFamily(String columnFamilyName) throws RocksDBException {
+    for (RocksManager shard : this.shards) {
+      shard.dropColumnFamily(columnFamilyName);
+    }
+  }
+
+  // -------------------- RocksDB -------------------- //
+
+  public void put(String key, byte[] value) throws RocksDBException {
+    put(key, value, null);
+  }
+
+  public void put(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    put(RocksUtils.marshal(key), value, columnFamilyName, null);
+  }
+
+  public void put(byte[] key, byte[] value, String columnFamilyName, WriteOptions options) throws RocksDBException {
+    shardOf(key).put(key, value, columnFamilyName, options);
+  }
+
+  public <K, V> void put(K key, V value, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, WriteOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(value);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    put(keyMarshaller.marshal(key), valueMarshaller.marshal(value), columnFamilyName, options);
+  }
+
+  public byte[] get(String key) throws RocksDBException {
+    return get(key, null);
+  }
+
+  public byte[] get(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return get(RocksUtils.marshal(key), columnFamilyName, null);
+  }
+
+  public byte[] get(byte[] key, String columnFamilyName, ReadOptions options) throws RocksDBException {
+    return shardOf(key).get(key, columnFamilyName, options);
+  }
+
+  public <K, V> V get(K key, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var value = get(keyMarshaller.marshal(key), columnFamilyName, options);
+    return (value != null) ? valueMarshaller.unmarshal(value) : null;
+  }
+
+  public List<byte[]> multiGet(List<String> keys) throws RocksDBException {
+    return multiGet(keys, null);
+  }
+
+  public List<byte[]> multiGet(List<String> keys, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(keys);
+
+    return multiGetAsList(RocksUtils.marshal(keys), columnFamilyName, (ReadOptions) null);
+  }
+
+  public List<byte[]> multiGetAsList(List<byte[]> keys, String columnFamilyName, ReadOptions options)
+      throws RocksDBException {
+    return multiGetAsList(keys, columnFamilyName, shardOptions(options));
+  }
+
+  // shardOptions holds one ReadOptions per shard, e.g. with a snapshot of each shard
+  public List<byte[]> multiGetAsList(List<byte[]> keys, String columnFamilyName, List<ReadOptions> shardOptions)
+      throws RocksDBException {
+    Arguments.notNull(keys);
+    Arguments.isTrue(shardOptions.size() == this.shards.size(), "shardOptions is invalid.");
+
+    // One multiGet per shard, values are put back in the order of keys
+    List<List<Integer>> positions = new ArrayList<>(this.shards.size());
+    List<List<byte[]>> shardKeys = new ArrayList<>(this.shards.size());
+
+    for (var idx = 0; idx < this.shards.size(); idx++) {
+      positions.add(new ArrayList<>());
+      shardKeys.add(new ArrayList<>());
+    }
+    for (var pos = 0; pos < keys.size(); pos++) {
+      var key = keys.get(pos);
+      var shardIndex = shardIndexOf(key);
+
+      positions.get(shardIndex).add(pos);
+      shardKeys.get(shardIndex).add(key);
+    }
+
+    List<Integer> targets = new ArrayList<>(this.shards.size());
+    for (var idx = 0; idx < this.shards.size(); idx++) {
+      if (!shardKeys.get(idx).isEmpty()) {
+        targets.add(idx);
+      }
+    }
+
+    // Shards are queried in parallel, each task fills distinct positions
+    var values = new ArrayList<byte[]>(Collections.nCopies(keys.size(), null));
+    RocksConsumer<Integer> task = target -> {
+      var idx = targets.get(target);
+      var shardValues = this.shards.get(idx).multiGetAsList(shardKeys.get(idx), columnFamilyName,
+          shardOptions.get(idx));
+      var shardPositions = positions.get(idx);
+
+      for (var i = 0; i < shardPositions.size(); i++) {
+        values.set(shardPositions.get(i), shardValues.get(i));
+      }
+    };
+    if (targets.size() == 1) {
+      task.accept(0);
+    } else if (targets.size() > 1) {
+      forEachIndex(this.executor, targets.size(), task);
+    }
+    return values;
+  }
+
+  public <K, V> List<V> multiGet(List<K> keys, RocksMarshaller<K> keyMarshaller, RocksMarshaller<V> valueMarshaller,
+      String columnFamilyName, ReadOptions options) throws RocksDBException {
+    Arguments.notNull(keys);
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(valueMarshaller);
+
+    var values = multiGetAsList(RocksUtils.marshal(keys, keyMarshaller), columnFamilyName, options);
+    return RocksUtils.unmarshal(values, valueMarshaller);
+  }
+
+  public boolean keyExists(String key) throws RocksDBException {
+    return keyExists(key, null);
+  }
+
+  public boolean keyExists(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    return keyExists(RocksUtils.marshal(key), columnFamilyName, null);
+  }
+
+  public boolean keyExists(byte[] key, String columnFamilyName, ReadOptions options) throws RocksDBException {
+    return shardOf(key).keyExists(key, columnFamilyName, options);
+  }
+
+  public void merge(String key, byte[] value) throws RocksDBException {
+    merge(key, value, null);
+  }
+
+  public void merge(String key, byte[] value, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    merge(RocksUtils.marshal(key), value, columnFamilyName, null);
+  }
+
+  public void merge(byte[] key, byte[] value, String columnFamilyName, WriteOptions options) throws RocksDBException {
+    shardOf(key).merge(key, value, columnFamilyName, options);
+  }
+
+  public void delete(String key) throws RocksDBException {
+    delete(key, null);
+  }
+
+  public void delete(String key, String columnFamilyName) throws RocksDBException {
+    Arguments.notNull(key);
+
+    delete(RocksUtils.marshal(key), columnFamilyName, null);
+  }
+
+  public void delete(byte[] key, String columnFamilyName, WriteOptions options) throws RocksDBException {
+    shardOf(key).delete(key, columnFamilyName, options);
+  }
+
+  public <K> void delete(K key, RocksMarshaller<K> keyMarshaller, String columnFamilyName, WriteOptions options)
+      throws RocksDBException {
+    Arguments.notNull(key);
+    Arguments.notNull(keyMarshaller);
+
+    delete(keyMarshaller.marshal(key), columnFamilyName, options);
+  }
+
+  public void deleteRange(byte[] fromKey, byte[] toKey, String columnFamilyName, WriteOptions options)
+      throws RocksDBException {
+    for (RocksManager shard : this.shards) {
+      shard.deleteRange(fromKey, toKey, columnFamilyName, options);
+    }
+  }
+
+  // -------------------- Scans -------------------- //
+
+  public <K, V> RocksMergeIterator<K, V> newRocksEntryIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, null, null, null, (ReadOptions) null);
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, null, (ReadOptions) null);
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, String columnFamilyName, ReadOptions options) {
+    return newRangeIterator(keyMarshaller, valueMarshaller, lowerKey, upperKey, columnFamilyName,
+        shardOptions(options));
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newRangeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K lowerKey, K upperKey, String columnFamilyName,
+      List<ReadOptions> shardOptions) {
+    Arguments.notNull(keyMarshaller);
+
+    // lowerKey is inclusive, upperKey is exclusive
+    return newMergeIterator(keyMarshaller, valueMarshaller,
+        (lowerKey != null) ? keyMarshaller.marshal(lowerKey) : null,
+        (upperKey != null) ? keyMarshaller.marshal(upperKey) : null, columnFamilyName, shardOptions);
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix) {
+    return newPrefixIterator(keyMarshaller, valueMarshaller, prefix, null, (ReadOptions) null);
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix, String columnFamilyName, ReadOptions options) {
+    return newPrefixIterator(keyMarshaller, valueMarshaller, prefix, columnFamilyName, shardOptions(options));
+  }
+
+  public <K, V> RocksMergeIterator<K, V> newPrefixIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, K prefix, String columnFamilyName, List<ReadOptions> shardOptions) {
+    Arguments.notNull(keyMarshaller);
+    Arguments.notNull(prefix);
+
+    var prefixBytes = keyMarshaller.marshal(prefix);
+    return newMergeIterator(keyMarshaller, valueMarshaller, prefixBytes, RocksUtils.nextPrefix(prefixBytes),
+        columnFamilyName, shardOptions);
+  }
+
+  private <K, V> RocksMergeIterator<K, V> newMergeIterator(RocksMarshaller<K> keyMarshaller,
+      RocksMarshaller<V> valueMarshaller, byte[] lowerKey, byte[] upperKey, String columnFamilyName,
+      List<ReadOptions> shardOptions) {
+    Arguments.isTrue(shardOptions.size() == this.shards.size(), "shardOptions is invalid.");
+
+    var resources = new RocksCloseable();
+    List<RocksIterator> rocksIterators = new ArrayList<>(this.shards.size());
+    try {
+      // Hash sharding spreads every key range over all shards, each shard reads with its own ReadOptions
+      for (var idx = 0; idx < this.shards.size(); idx++) {
+        var readOptions = RocksManager.newBoundedReadOptions(lowerKey, upperKey, shardOptions.get(idx), resources);
+        rocksIterators.add(this.shards.get(idx).newRocksIterator(columnFamilyName, readOptions));
+      }
+      return new RocksMergeIterator<>(rocksIterators, keyMarshaller, valueMarshaller, resources);
+
+    } catch (RuntimeException ex) {
+      for (RocksIterator rocksIterator : rocksIterators) {
+        rocksIterator.close();
+      }
+      resources.close();
+      throw ex;
+    }
+  }
+
+  // A snapshot belongs to one database, it can't be shared by the shards
+  private List<ReadOptions> shardOptions(ReadOptions options) {
+    if (options != null && options.snapshot() != null) {
+      throw new IllegalArgumentException("options must not have a snapshot, use one ReadOptions per shard.");
+    }
+    return Collections.nCopies(this.shards.size(), options);
+  }
+
+  // -------------------- Others -------------------- //
+
+  public void flush(FlushOptions options) throws RocksDBException {
+    flush(options, null);
+  }
+
+  public void flush(FlushOptions options, String columnFamilyName) throws RocksDBException {
+    for (RocksManager shard : this.shards) {
+      shard.flush(options, columnFamilyName);
+    }
+  }
+
+  public void compactRange(String columnFamilyName) throws RocksDBException {
+    forEachShard(this.shards, shard -> shard.compactRange(columnFamilyName));
+  }
+
+  @Override
+  public void close() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+    try {
+      forEachShard(this.shards, RocksManager::close);
+
+    } catch (RocksDBException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  // -------------------- Create ShardedRocksManager -------------------- //
+
+  public static ShardedRocksManager open(List<String> shardDirs, RocksShardRouter router,
+      RocksFunction<String, RocksManager> opener) throws RocksDBException {
+    Arguments.hasElements(shardDirs);
+    Arguments.notNull(router);
+    Arguments.notNull(opener);
+
+    var shards = new RocksManager[shardDirs.size()];
+    try {
+      forEachIndex(shardDirs.size(), idx -> shards[idx] = opener.apply(shardDirs.get(idx)));
+
+    } catch (RocksDBException | RuntimeException ex) {
+      for (RocksManager shard : shards) {
+        if (shard != null) {
+          shard.close();
+        }
+      }
+      throw ex;
+    }
+    return new ShardedRocksManager(List.of(shards), router);
+  }
+
+  static void forEachShard(List<RocksManager> shards, RocksConsumer<RocksManager> action) throws RocksDBException {
+    forEachIndex(shards.size(), idx -> action.accept(shards.get(idx)));
+  }
+
+  // Runs one task per shard in parallel, all tasks complete before the first error is thrown
+  static void forEachIndex(int count, RocksConsumer<Integer> action) throws RocksDBException {
+    if (count == 1) {
+      action.accept(0);
+      return;
+    }
+    var executor = newExecutor(count);
+    try {
+      forEachIndex(executor, count, action);
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // The calling thread runs the last task
+  static void forEachIndex(ExecutorService executor, int count, RocksConsumer<Integer> action)
+      throws RocksDBException {
+    List<Future<Void>> futures = new ArrayList<>(count - 1);
+    for (var idx = 0; idx < count - 1; idx++) {
+      var index = idx;
+      futures.add(executor.submit(() -> {
+        action.accept(index);
+        return null;
+      }));
+    }
+
+    Throwable error = null;
+    try {
+      action.accept(count - 1);
+
+    } catch (RocksDBException | RuntimeException ex) {
+      error = ex;
+    }
+    try {
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+
+        } catch (ExecutionException ex) {
+          if (error == null) {
+            error = ex.getCause();
+          }
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RocksDBException("Shard tasks are interrupted.");
+    }
+
+    if (error instanceof RocksDBException rocksEx) {
+      throw rocksEx;
+    }
+    if (error instanceof RuntimeException runtimeEx) {
+      throw runtimeEx;
+    }
+    if (error != null) {
+      throw new RocksDBException(error.toString());
+    }
+  }
+
+  static ExecutorService newExecutor(int count) {
+    return Executors.newFixedThreadPool(Math.min(count, Runtime.getRuntime().availableProcessors()), r -> {
+      var thread = new Thread(r, "rocks-shard-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
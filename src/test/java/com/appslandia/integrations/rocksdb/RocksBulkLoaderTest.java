@@ -0,0 +1,123 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksBulkLoaderTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_load_multiPartitions() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir.resolve("db"))) {
+      var loader = newLoader(rocksManager);
+
+      // Small maxFileBytes splits each partition into several files
+      var count = loader.load(List.of(entries(0, 100), entries(100, 250), entries(250, 300)));
+      assertEquals(300, count);
+
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      assertEquals("v0000", table.get(key(0)));
+      assertEquals("v0150", table.get(key(150)));
+      assertEquals("v0299", table.get(key(299)));
+      assertWorkDirDeleted();
+    }
+  }
+
+  @Test
+  public void test_load_overlappingPartitions() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir.resolve("db"))) {
+      var loader = newLoader(rocksManager);
+
+      assertThrows(IllegalArgumentException.class, () -> loader.load(List.of(entries(0, 100), entries(50, 150))));
+      assertThrows(IllegalArgumentException.class, () -> loader.load(List.of(entries(100, 200), entries(0, 50))));
+
+      // Nothing is ingested
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      assertNull(table.get(key(0)));
+      assertWorkDirDeleted();
+    }
+  }
+
+  @Test
+  public void test_load_failingPartition() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir.resolve("db"))) {
+      var loader = newLoader(rocksManager);
+
+      // One partition fails while the others are still writing
+      var failing = new Iterator<RocksEntry<String, String>>() {
+        int idx = 1000;
+
+        @Override
+        public boolean hasNext() {
+          return true;
+        }
+
+        @Override
+        public RocksEntry<String, String> next() {
+          if (this.idx == 1010) {
+            throw new IllegalStateException("Source failed.");
+          }
+          var key = key(this.idx++);
+          return new RocksEntry<>(key, "v" + key.substring(1));
+        }
+      };
+      List<Iterator<RocksEntry<String, String>>> partitions = new ArrayList<>();
+      partitions.add(entries(0, 1000));
+      partitions.add(failing);
+      partitions.add(entries(2000, 3000));
+
+      var ex = assertThrows(IllegalStateException.class, () -> loader.load(partitions));
+      assertEquals("Source failed.", ex.getMessage());
+
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      assertNull(table.get(key(0)));
+      assertWorkDirDeleted();
+
+      // Not in strictly ascending order
+      assertThrows(IllegalArgumentException.class,
+          () -> loader.load(List.of(entries(0, 10), List.of(entry(20), entry(20)).iterator())));
+      assertWorkDirDeleted();
+    }
+  }
+
+  private RocksBulkLoader<String, String> newLoader(RocksManager rocksManager) throws Exception {
+    var workRoot = Files.createDirectories(this.tempDir.resolve("work"));
+    return rocksManager.newBulkLoader(RocksManager.DEFAULT_COLUMN_FAMILY, RocksMarshaller.TYPE_STRING,
+        RocksMarshaller.TYPE_STRING, null, 512, workRoot);
+  }
+
+  private void assertWorkDirDeleted() throws Exception {
+    try (var paths = Files.list(this.tempDir.resolve("work"))) {
+      assertTrue(paths.findAny().isEmpty());
+    }
+  }
+
+  private static Iterator<RocksEntry<String, String>> entries(int from, int to) {
+    List<RocksEntry<String, String>> entries = new ArrayList<>();
+    for (var idx = from; idx < to; idx++) {
+      entries.add(entry(idx));
+    }
+    return entries.iterator();
+  }
+
+  private static RocksEntry<String, String> entry(int idx) {
+    return new RocksEntry<>(key(idx), String.format("v%04d", idx));
+  }
+
+  private static String key(int idx) {
+    return String.format("k%04d", idx);
+  }
+}
@@ -0,0 +1,133 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.WriteBatch;
+
+public class RocksCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  static byte[] bytes(String value) {
+    return RocksUtils.marshal(value);
+  }
+
+  @Test
+  public void test_invalidate() {
+    var cache = new RocksCache(1024 * 1024, false);
+    cache.put(bytes("k1"), bytes("v1"), cache.stamp(bytes("k1")));
+    cache.put(bytes("k2"), bytes("v2"), cache.stamp(bytes("k2")));
+
+    assertArrayEquals(bytes("v1"), cache.get(bytes("k1")));
+
+    cache.invalidate(bytes("k1"));
+    assertFalse(cache.contains(bytes("k1")));
+    assertTrue(cache.contains(bytes("k2")));
+    assertEquals(1L, cache.getSize());
+  }
+
+  @Test
+  public void test_invalidateAll() {
+    var cache = new RocksCache(1024 * 1024, false);
+    for (int i = 0; i < 100; i++) {
+      cache.put(bytes("k" + i), bytes("v" + i), cache.stamp(bytes("k" + i)));
+    }
+    assertEquals(100L, cache.getSize());
+
+    cache.invalidateAll();
+    assertEquals(0L, cache.getSize());
+    assertEquals(0L, cache.getWeight());
+  }
+
+  @Test
+  public void test_staleStamp_skipped() {
+    var cache = new RocksCache(1024 * 1024, false);
+    var stamp = cache.stamp(bytes("k1"));
+
+    // A write invalidated the key between the read and the put
+    cache.invalidate(bytes("k1"));
+    cache.put(bytes("k1"), bytes("old"), stamp);
+
+    assertFalse(cache.contains(bytes("k1")));
+  }
+
+  @Test
+  public void test_cacheNulls() {
+    var cache = new RocksCache(1024 * 1024, true);
+    cache.put(bytes("k1"), null, cache.stamp(bytes("k1")));
+
+    assertTrue(cache.contains(bytes("k1")));
+    assertSame(RocksCache.NULL_VALUE, cache.peek(bytes("k1")));
+    assertNull(cache.get(bytes("k1")));
+  }
+
+  @Test
+  public void test_rawWriteBatch_invalidates() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var cache = rocksManager.enableCache(null, 1024 * 1024, false);
+      rocksManager.put("k1", bytes("v1"));
+
+      assertArrayEquals(bytes("v1"), rocksManager.get("k1"));
+      assertTrue(cache.contains(bytes("k1")));
+
+      try (var batch = new WriteBatch()) {
+        batch.put(bytes("k1"), bytes("v2"));
+        rocksManager.write(batch);
+      }
+      assertFalse(cache.contains(bytes("k1")));
+      assertArrayEquals(bytes("v2"), rocksManager.get("k1"));
+    }
+  }
+
+  @Test
+  public void test_rocksBatch_invalidatesKeys() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var cache = rocksManager.enableCache(null, 1024 * 1024, false);
+      rocksManager.put("k1", bytes("v1"));
+      rocksManager.put("k2", bytes("v2"));
+      rocksManager.get("k1");
+      rocksManager.get("k2");
+
+      rocksManager.writeBatch(batch -> batch.put("k1", bytes("v1b")));
+
+      assertFalse(cache.contains(bytes("k1")));
+      assertTrue(cache.contains(bytes("k2")));
+      assertArrayEquals(bytes("v1b"), rocksManager.get("k1"));
+    }
+  }
+
+  @Test
+  public void test_rocksBatch_reusedKeyArray() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var cache = rocksManager.enableCache(null, 1024 * 1024, false);
+      rocksManager.put("k1", bytes("v1"));
+      rocksManager.put("k2", bytes("v2"));
+      rocksManager.get("k1");
+      rocksManager.get("k2");
+
+      // The same key array is rewritten for each put before the batch commits
+      try (var batch = rocksManager.newBatch()) {
+        var key = bytes("k1");
+        batch.put(key, bytes("v1b"), null);
+
+        System.arraycopy(bytes("k2"), 0, key, 0, key.length);
+        batch.put(key, bytes("v2b"), null);
+        batch.commit();
+      }
+      assertFalse(cache.contains(bytes("k1")));
+      assertFalse(cache.contains(bytes("k2")));
+      assertArrayEquals(bytes("v1b"), rocksManager.get("k1"));
+      assertArrayEquals(bytes("v2b"), rocksManager.get("k2"));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+
+public class RocksGroupWriterTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_batching() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      List<Integer> batchSizes = new ArrayList<>();
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+      // Writes queued within maxDelay are committed together
+      try (var writer = rocksManager.newGroupWriter(null, 100, 50_000, batchSizes::add)) {
+        for (var idx = 0; idx < 50; idx++) {
+          futures.add(writer.put("k" + idx, RocksUtils.marshal("v" + idx)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(50, writer.getWriteCount());
+        assertTrue(writer.getMaxCommittedBatch() > 1);
+        assertTrue(writer.getCommitCount() < 50);
+
+        writer.delete("k0").get(10, TimeUnit.SECONDS);
+      }
+      // The listener runs after the futures complete, read it once the committer has stopped
+      assertEquals(51, batchSizes.stream().mapToInt(Integer::intValue).sum());
+      assertNull(rocksManager.get("k0"));
+      assertArrayEquals(RocksUtils.marshal("v49"), rocksManager.get("k49"));
+    }
+  }
+
+  @Test
+  public void test_failurePropagation() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir);
+        var options = new WriteOptions().setSync(true).setDisableWAL(true)) {
+
+      // Sync writes require the WAL, the whole batch is rejected
+      try (var writer = rocksManager.newGroupWriter(options, 100, 10_000)) {
+        var f1 = writer.put("k1", RocksUtils.marshal("v1"));
+        var f2 = writer.put("k2", RocksUtils.marshal("v2"));
+
+        var ex = assertThrows(ExecutionException.class, () -> f1.get(10, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof RocksDBException);
+        assertThrows(ExecutionException.class, () -> f2.get(10, TimeUnit.SECONDS));
+        assertEquals(0, writer.getCommitCount());
+      }
+      assertNull(rocksManager.get("k1"));
+    }
+  }
+
+  @Test
+  public void test_close_pendingOps() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+      var writer = rocksManager.newGroupWriter(null, 10, 20_000);
+      for (var idx = 0; idx < 100; idx++) {
+        futures.add(writer.put("k" + idx, RocksUtils.marshal("v" + idx)));
+      }
+      writer.close();
+
+      // Queued ops are committed or failed by close, none is left pending
+      for (CompletableFuture<Void> future : futures) {
+        assertTrue(future.isDone());
+      }
+      assertEquals(0, writer.getPendingCount());
+      assertEquals(100, writer.getWriteCount());
+      assertArrayEquals(RocksUtils.marshal("v99"), rocksManager.get("k99"));
+
+      assertThrows(IllegalStateException.class, () -> writer.put("k100", RocksUtils.marshal("v100")));
+    }
+  }
+}
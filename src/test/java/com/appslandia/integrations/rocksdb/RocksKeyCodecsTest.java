@@ -0,0 +1,151 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class RocksKeyCodecsTest {
+
+  // Encoded keys must sort bytewise (unsigned) in the same order as the values
+  static <T> void assertOrdered(RocksKeyCodec<T> codec, List<T> sortedValues) {
+    for (int i = 0; i < sortedValues.size(); i++) {
+      var encoded = codec.marshal(sortedValues.get(i));
+      assertEquals(codec.sizeOf(sortedValues.get(i)), encoded.length);
+
+      if (i > 0) {
+        var previous = codec.marshal(sortedValues.get(i - 1));
+        assertTrue(Arrays.compareUnsigned(previous, encoded) < 0, "at " + sortedValues.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void test_int() {
+    var values = List.of(Integer.MIN_VALUE, -65536, -1, 0, 1, 255, 256, Integer.MAX_VALUE);
+    assertOrdered(RocksKeyCodecs.TYPE_INT, values);
+
+    for (Integer value : values) {
+      assertEquals(value, RocksKeyCodecs.TYPE_INT.unmarshal(RocksKeyCodecs.TYPE_INT.marshal(value)));
+    }
+  }
+
+  @Test
+  public void test_uint() {
+    assertOrdered(RocksKeyCodecs.TYPE_UINT, List.of(0, 1, 255, Integer.MAX_VALUE, Integer.MIN_VALUE, -1));
+  }
+
+  @Test
+  public void test_long() {
+    var values = List.of(Long.MIN_VALUE, -(1L << 40), -1L, 0L, 1L, 1L << 40, Long.MAX_VALUE);
+    assertOrdered(RocksKeyCodecs.TYPE_LONG, values);
+
+    for (Long value : values) {
+      assertEquals(value, RocksKeyCodecs.TYPE_LONG.unmarshal(RocksKeyCodecs.TYPE_LONG.marshal(value)));
+    }
+  }
+
+  @Test
+  public void test_ulong() {
+    assertOrdered(RocksKeyCodecs.TYPE_ULONG, List.of(0L, 1L, Long.MAX_VALUE, Long.MIN_VALUE, -1L));
+  }
+
+  @Test
+  public void test_double() {
+    var values = List.of(Double.NEGATIVE_INFINITY, -1e300, -1.5, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 1.5,
+        1e300, Double.POSITIVE_INFINITY, Double.NaN);
+    assertOrdered(RocksKeyCodecs.TYPE_DOUBLE, values);
+
+    for (Double value : values) {
+      assertEquals(value, RocksKeyCodecs.TYPE_DOUBLE.unmarshal(RocksKeyCodecs.TYPE_DOUBLE.marshal(value)));
+    }
+
+    // A negative-sign NaN is canonicalised, it sorts after Infinity as NaN does
+    var negativeNaN = Double.longBitsToDouble(0xfff8000000000000L);
+    assertArrayEquals(RocksKeyCodecs.TYPE_DOUBLE.marshal(Double.NaN), RocksKeyCodecs.TYPE_DOUBLE.marshal(negativeNaN));
+  }
+
+  @Test
+  public void test_uuid() {
+    var values = List.of(new UUID(0, 0), new UUID(0, -1), new UUID(1, 0), new UUID(Long.MAX_VALUE, 0),
+        new UUID(Long.MIN_VALUE, 0), new UUID(-1, -1));
+    assertOrdered(RocksKeyCodecs.TYPE_UUID, values);
+  }
+
+  @Test
+  public void test_instant() {
+    var values = List.of(Instant.ofEpochSecond(-100, 5), Instant.EPOCH, Instant.ofEpochSecond(0, 1),
+        Instant.ofEpochSecond(1, 0), Instant.ofEpochSecond(1, 999_999_999), Instant.ofEpochSecond(2, 0));
+    assertOrdered(RocksKeyCodecs.TYPE_INSTANT, values);
+
+    for (Instant value : values) {
+      assertEquals(value, RocksKeyCodecs.TYPE_INSTANT.unmarshal(RocksKeyCodecs.TYPE_INSTANT.marshal(value)));
+    }
+  }
+
+  @Test
+  public void test_orderedString() {
+    // U+1F600 sorts after U+FFFF by code point, its UTF-16 surrogates would sort before
+    var values = List.of("", "\0", "\0\0", "\0a", "a", "a\0", "a\0b", "ab", "b", "\u00e9", "\uffff",
+        "\ud83d\ude00");
+    assertOrdered(RocksKeyCodecs.ORDERED_STRING, values);
+
+    for (String value : values) {
+      assertEquals(value, RocksKeyCodecs.ORDERED_STRING.unmarshal(RocksKeyCodecs.ORDERED_STRING.marshal(value)));
+    }
+  }
+
+  @Test
+  public void test_bytes() {
+    var values = List.of(new byte[0], new byte[] { 0 }, new byte[] { 0, 0 }, new byte[] { 0, 1 },
+        new byte[] { 1 }, new byte[] { 1, 0 }, new byte[] { (byte) 0xFF });
+    assertOrdered(RocksKeyCodecs.TYPE_BYTES, values);
+
+    for (byte[] value : values) {
+      assertArrayEquals(value, RocksKeyCodecs.TYPE_BYTES.unmarshal(RocksKeyCodecs.TYPE_BYTES.marshal(value)));
+    }
+  }
+
+  @Test
+  public void test_tuple() {
+    var codec = RocksKeyCodecs.tuple(RocksKeyCodecs.ORDERED_STRING, RocksKeyCodecs.TYPE_LONG);
+    var values = List.of(new Object[] { "a", -1L }, new Object[] { "a", 0L }, new Object[] { "a", 5L },
+        new Object[] { "a\0", Long.MIN_VALUE }, new Object[] { "ab", Long.MIN_VALUE }, new Object[] { "b", 0L });
+    assertOrdered(codec, values);
+
+    for (Object[] value : values) {
+      assertArrayEquals(value, codec.unmarshal(codec.marshal(value)));
+    }
+
+    // A shorter tuple is a prefix of the full key
+    var prefix = codec.marshal(new Object[] { "a" });
+    var full = codec.marshal(new Object[] { "a", 5L });
+    assertArrayEquals(prefix, Arrays.copyOf(full, prefix.length));
+  }
+
+  @Test
+  public void test_endOf_respectsLimit() {
+    var codec = RocksKeyCodecs.tuple(RocksKeyCodecs.ORDERED_STRING, RocksKeyCodecs.TYPE_INT);
+    var encoded = codec.marshal(new Object[] { "key", 7 });
+
+    // The backing array continues past the slice with a valid terminator
+    var backing = Arrays.copyOf(encoded, encoded.length + 16);
+    var slice = ByteBuffer.wrap(backing, 0, 3);
+
+    assertThrows(IllegalArgumentException.class, () -> codec.unmarshal(slice));
+    assertThrows(IllegalArgumentException.class,
+        () -> RocksKeyCodecs.ORDERED_STRING.endOf(encoded, 0, encoded.length - 5));
+    assertThrows(IllegalArgumentException.class, () -> RocksKeyCodecs.TYPE_INT.endOf(encoded, 0, 3));
+
+    var view = ByteBuffer.wrap(backing, 0, encoded.length);
+    assertArrayEquals(new Object[] { "key", 7 }, codec.unmarshal(view));
+  }
+}
@@ -1,10 +1,66 @@
 package com.appslandia.integrations.rocksdb;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class RocksManagerTest {
 
+  @TempDir
+  Path tempDir;
+
   @Test
   public void test() {
   }
+
+  @Test
+  public void test_dropColumnFamily_recreated() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      rocksManager.createColumnFamily("cf1", RocksUtils.newCfOptions());
+
+      var staleTable = rocksManager.table("cf1", RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      staleTable.put("k1", "v1");
+
+      rocksManager.dropColumnFamily("cf1");
+      assertThrows(IllegalStateException.class, () -> staleTable.get("k1"));
+
+      // A column family of the same name has a new handle, the stale table stays dropped
+      rocksManager.createColumnFamily("cf1", RocksUtils.newCfOptions());
+      var table = rocksManager.table("cf1", RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+
+      assertNull(table.get("k1"));
+      table.put("k1", "v2");
+      assertEquals("v2", table.get("k1"));
+      assertThrows(IllegalStateException.class, () -> staleTable.get("k1"));
+      assertThrows(IllegalStateException.class, () -> staleTable.put("k1", "v3"));
+    }
+  }
+
+  @Test
+  public void test_readView_age() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      assertEquals(0L, rocksManager.getOldestSnapshotAgeNanos());
+
+      try (var oldest = rocksManager.newReadView()) {
+        Thread.sleep(5);
+
+        try (var newest = rocksManager.newReadView()) {
+          assertEquals(2, rocksManager.getOpenSnapshotCount());
+          assertTrue(oldest.getAgeNanos() > newest.getAgeNanos());
+
+          // The age of the oldest open view, not a start time
+          var oldestAge = rocksManager.getOldestSnapshotAgeNanos();
+          assertTrue(oldestAge >= 5_000_000L && oldestAge <= oldest.getAgeNanos());
+        }
+      }
+      assertEquals(0, rocksManager.getOpenSnapshotCount());
+      assertEquals(0L, rocksManager.getOldestSnapshotAgeNanos());
+    }
+  }
 }
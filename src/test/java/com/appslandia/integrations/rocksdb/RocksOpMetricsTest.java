@@ -0,0 +1,96 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksOpMetricsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_bucketOf_boundsValue() {
+    for (long nanos = 0; nanos < 1_000_000; nanos += (nanos < 1000) ? 1 : 997) {
+      var bucket = RocksOpMetrics.bucketOf(nanos);
+      assertTrue(nanos <= RocksOpMetrics.bucketUpperBound(bucket));
+
+      // At most 25% above the value
+      assertTrue(RocksOpMetrics.bucketUpperBound(bucket) <= Math.max(nanos * 5 / 4, 3));
+
+      if (bucket > 0) {
+        assertTrue(nanos > RocksOpMetrics.bucketUpperBound(bucket - 1));
+      }
+    }
+    assertTrue(RocksOpMetrics.bucketOf(Long.MAX_VALUE) < RocksOpMetrics.BUCKET_COUNT);
+  }
+
+  @Test
+  public void test_snapshot_percentiles() {
+    var metrics = new RocksOpMetrics("default", RocksOp.GET);
+    for (int i = 1; i <= 1000; i++) {
+      metrics.record(i * 1000L, 10);
+    }
+    var snapshot = metrics.snapshot();
+
+    assertEquals(1000L, snapshot.getCount());
+    assertEquals(10_000L, snapshot.getBytes());
+    assertEquals(1_000_000L, snapshot.getMaxNanos());
+    assertEquals(500_500L, snapshot.getMeanNanos());
+
+    assertWithin(500_000L, snapshot.getP50Nanos());
+    assertWithin(900_000L, snapshot.getP90Nanos());
+    assertWithin(990_000L, snapshot.getP99Nanos());
+    assertTrue(snapshot.getP999Nanos() <= snapshot.getMaxNanos());
+  }
+
+  @Test
+  public void test_concurrentRecord() throws Exception {
+    var metrics = new RocksOpMetrics("default", RocksOp.PUT);
+    List<Thread> threads = new ArrayList<>();
+
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          metrics.record(100 + (i % 7), 0);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    var snapshot = metrics.snapshot();
+    assertEquals(80_000L, snapshot.getCount());
+    assertTrue(snapshot.getP50Nanos() >= 100 && snapshot.getP50Nanos() <= 106);
+
+    metrics.reset();
+    assertEquals(0L, metrics.snapshot().getCount());
+    assertEquals(0L, metrics.snapshot().getP99Nanos());
+  }
+
+  @Test
+  public void test_tableDeleteRange_recorded() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var metrics = rocksManager.enableMetrics();
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+
+      table.put("a", "1");
+      table.deleteRange("a", "b");
+
+      assertEquals(1L, metrics.get(RocksManager.DEFAULT_COLUMN_FAMILY, RocksOp.DELETE_RANGE).snapshot().getCount());
+    }
+  }
+
+  static void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected * 5 / 4, "actual: " + actual);
+  }
+}
@@ -0,0 +1,129 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksPageTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_token_roundTrip() {
+    var keys = List.of(new byte[0], new byte[] { 0 }, new byte[] { (byte) 0xFF, (byte) 0xFE, 0, 1 },
+        RocksUtils.marshal("k0042"), RocksKeyCodecs.TYPE_LONG.marshal(-1L));
+
+    for (byte[] key : keys) {
+      var token = RocksPage.encodeToken(key);
+
+      // URL safe without padding
+      assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+      assertArrayEquals(key, RocksPage.decodeToken(token));
+    }
+    assertThrows(IllegalArgumentException.class, () -> RocksPage.decodeToken("not a token!"));
+  }
+
+  @Test
+  public void test_forwardPages() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, 25);
+
+      var keys = readAll(rocksManager, false, null, null);
+      assertEquals(25, keys.size());
+      assertEquals(key(0), keys.get(0));
+      assertEquals(key(24), keys.get(24));
+
+      var bounded = readAll(rocksManager, false, key(5), key(15));
+      assertEquals(10, bounded.size());
+      assertEquals(key(5), bounded.get(0));
+      assertEquals(key(14), bounded.get(9));
+    }
+  }
+
+  @Test
+  public void test_reversePages() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, 25);
+
+      var keys = readAll(rocksManager, true, null, null);
+      assertEquals(25, keys.size());
+      for (int i = 0; i < 25; i++) {
+        assertEquals(key(24 - i), keys.get(i));
+      }
+
+      // upperKey stays exclusive in reverse
+      var bounded = readAll(rocksManager, true, key(5), key(15));
+      assertEquals(10, bounded.size());
+      assertEquals(key(14), bounded.get(0));
+      assertEquals(key(5), bounded.get(9));
+    }
+  }
+
+  @Test
+  public void test_reversePages_concurrentInsert() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, 10);
+
+      var page = rocksManager.getPage(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, null, null, null, 4,
+          true, null, null, null);
+      assertEquals(key(6), page.getEntries().get(3).key);
+
+      // Keys after the token don't show up on later reverse pages, keys before it do
+      rocksManager.put(key(7) + "x", RocksUtils.marshal("v"));
+      rocksManager.put(key(5) + "x", RocksUtils.marshal("v"));
+
+      var next = rocksManager.getPage(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, null, null,
+          page.getNextToken(), 4, true, null, null, null);
+      assertEquals(List.of(key(5) + "x", key(5), key(4), key(3)), keysOf(next));
+    }
+  }
+
+  static List<String> readAll(RocksManager rocksManager, boolean reverse, String lowerKey, String upperKey) {
+    List<String> keys = new ArrayList<>();
+    String token = null;
+    var pages = 0;
+
+    do {
+      var page = rocksManager.getPage(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, lowerKey, upperKey,
+          token, 4, reverse, null, null, null);
+      assertTrue(page.getEntries().size() <= 4);
+
+      keys.addAll(keysOf(page));
+      token = page.getNextToken();
+      pages++;
+    } while (token != null);
+
+    assertEquals((keys.size() + 3) / 4, pages);
+    return keys;
+  }
+
+  static List<String> keysOf(RocksPage<String, String> page) {
+    List<String> keys = new ArrayList<>();
+    for (RocksEntry<String, String> entry : page.getEntries()) {
+      keys.add(entry.key);
+    }
+    return keys;
+  }
+
+  static String key(int i) {
+    return String.format("k%04d", i);
+  }
+
+  static void load(RocksManager rocksManager, int count) throws Exception {
+    for (int i = 0; i < count; i++) {
+      rocksManager.put(key(i), RocksUtils.marshal("v" + i));
+    }
+    assertNull(rocksManager.get(key(count)));
+  }
+}
@@ -0,0 +1,83 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksPrefixIteratorTest {
+
+  @TempDir
+  Path tempDir;
+
+  static final List<String> KEYS = List.of("aa", "aa01", "aa02", "aab1", "ab01", "b", "ba01", "ba02");
+
+  @Test
+  public void test_noExtractor() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, null);
+
+      assertEquals(List.of("aa", "aa01", "aa02", "aab1"), scan(rocksManager, "aa", null));
+      assertEquals(List.of("ba01", "ba02"), scan(rocksManager, "ba", null));
+      assertEquals(List.of(), scan(rocksManager, "c", null));
+    }
+  }
+
+  @Test
+  public void test_cappedExtractor_shorterPrefix() throws Exception {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var cfOptions = RocksUtils.useCappedPrefix(RocksUtils.newCfOptions(), 4, rocksCloseable);
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir, rocksCloseable,
+        List.of(RocksUtils.newCfDescriptor("capped", cfOptions)))) {
+      load(rocksManager, "capped");
+
+      // Prefixes shorter than, equal to and longer than the extractor
+      assertEquals(List.of("aa", "aa01", "aa02", "aab1", "ab01"), scan(rocksManager, "a", "capped"));
+      assertEquals(List.of("aa", "aa01", "aa02", "aab1"), scan(rocksManager, "aa", "capped"));
+      assertEquals(List.of("aa01"), scan(rocksManager, "aa01", "capped"));
+      assertEquals(List.of("ba01", "ba02"), scan(rocksManager, "ba0", "capped"));
+    }
+  }
+
+  @Test
+  public void test_fixedExtractor_shorterPrefix() throws Exception {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var cfOptions = RocksUtils.useFixedPrefix(RocksUtils.newCfOptions(), 2, rocksCloseable);
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir, rocksCloseable,
+        List.of(RocksUtils.newCfDescriptor("fixed", cfOptions)))) {
+      load(rocksManager, "fixed");
+
+      assertEquals(List.of("aa", "aa01", "aa02", "aab1", "ab01"), scan(rocksManager, "a", "fixed"));
+      assertEquals(List.of("aa", "aa01", "aa02", "aab1"), scan(rocksManager, "aa", "fixed"));
+      assertEquals(List.of("b", "ba01", "ba02"), scan(rocksManager, "b", "fixed"));
+    }
+  }
+
+  static void load(RocksManager rocksManager, String columnFamilyName) throws Exception {
+    for (String key : KEYS) {
+      rocksManager.put(key, RocksUtils.marshal(key), columnFamilyName);
+    }
+    // Half of the keys come from SST files, the others from the memtable
+    try (var flushOptions = RocksUtils.newFlushOptions().setWaitForFlush(true)) {
+      rocksManager.flush(flushOptions, columnFamilyName);
+    }
+    rocksManager.put("aa02", RocksUtils.marshal("aa02"), columnFamilyName);
+  }
+
+  static List<String> scan(RocksManager rocksManager, String prefix, String columnFamilyName) {
+    List<String> keys = new ArrayList<>();
+    try (var iterator = rocksManager.newPrefixIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING,
+        prefix, columnFamilyName)) {
+      while (iterator.hasNext()) {
+        keys.add(iterator.next().key);
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,73 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.RocksDB;
+
+public class RocksPresetTest {
+
+  @TempDir
+  Path tempDir;
+
+  static byte[] bytes(String value) {
+    return RocksUtils.marshal(value);
+  }
+
+  @Test
+  public void test_newOptions_eachWorkload() throws Exception {
+    for (RocksPreset.Workload workload : RocksPreset.Workload.values()) {
+      var rocksCloseable = RocksUtils.newRocksCloseable();
+      var preset = RocksUtils.newPreset(workload, rocksCloseable).setWriteBufferManagerSize(16 * 1024 * 1024);
+
+      var options = preset.newOptions().setCreateIfMissing(true);
+      var dir = this.tempDir.resolve(workload.name());
+
+      try (var rocksDB = RocksDB.open(options, dir.toString())) {
+        rocksDB.put(bytes("k1"), bytes("v1"));
+        assertArrayEquals(bytes("v1"), rocksDB.get(bytes("k1")));
+      }
+
+      // Options, block cache and write buffer manager are all released with the RocksCloseable
+      var blockCache = preset.getBlockCache();
+      var writeBufferManager = preset.getWriteBufferManager();
+      assertTrue(options.isOwningHandle() && blockCache.isOwningHandle() && writeBufferManager.isOwningHandle());
+
+      rocksCloseable.close();
+      assertFalse(options.isOwningHandle());
+      assertFalse(blockCache.isOwningHandle());
+      assertFalse(writeBufferManager.isOwningHandle());
+    }
+  }
+
+  @Test
+  public void test_columnFamilies_shareBlockCache() throws Exception {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var preset = RocksUtils.newPreset(RocksPreset.Workload.POINT_LOOKUP, rocksCloseable);
+    var blockCache = preset.getBlockCache();
+
+    var cfOptions = preset.newCfOptions();
+    var descriptors = List.of(RocksUtils.newCfDescriptor("cf1", cfOptions),
+        RocksUtils.newCfDescriptor("cf2", preset.newCfOptions()));
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir, rocksCloseable, descriptors)) {
+      rocksManager.put("k1", bytes("v1"), "cf1");
+      rocksManager.put("k1", bytes("v2"), "cf2");
+
+      assertArrayEquals(bytes("v1"), rocksManager.get("k1", "cf1"));
+      assertArrayEquals(bytes("v2"), rocksManager.get("k1", "cf2"));
+      assertSame(blockCache, preset.getBlockCache());
+    }
+
+    // The manager closes the RocksCloseable
+    assertFalse(cfOptions.isOwningHandle());
+    assertFalse(blockCache.isOwningHandle());
+  }
+}
@@ -0,0 +1,107 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksScratchTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_marshal_roundTrip() {
+    var scratch = new RocksScratch();
+
+    var keyBuffer = scratch.key("ké中", RocksMarshaller.TYPE_STRING);
+    assertTrue(keyBuffer.isDirect());
+    assertEquals(RocksUtils.utf8Length("ké中"), keyBuffer.remaining());
+    assertEquals("ké中", RocksMarshaller.TYPE_STRING.unmarshal(keyBuffer));
+
+    var valueBuffer = scratch.value(-42L, RocksKeyCodecs.TYPE_LONG);
+    assertEquals(8, valueBuffer.remaining());
+    assertEquals(-42L, (long) RocksKeyCodecs.TYPE_LONG.unmarshal(valueBuffer));
+
+    // The buffers are reused by the next call
+    assertSame(keyBuffer, scratch.key("k2", RocksMarshaller.TYPE_STRING));
+    assertSame(valueBuffer, scratch.value(7L, RocksKeyCodecs.TYPE_LONG));
+  }
+
+  @Test
+  public void test_growth_notRetained() {
+    var scratch = new RocksScratch();
+    var small = scratch.keyBuffer(100);
+    assertEquals(RocksScratch.MIN_CAPACITY, small.capacity());
+
+    var grown = scratch.keyBuffer(1000);
+    assertEquals(1024, grown.capacity());
+    assertSame(grown, scratch.keyBuffer(500));
+
+    // Larger buffers serve one call, the retained buffer is kept
+    var large = scratch.keyBuffer(RocksScratch.MAX_RETAINED_CAPACITY + 1);
+    assertTrue(large.capacity() > RocksScratch.MAX_RETAINED_CAPACITY);
+    assertSame(grown, scratch.keyBuffer(500));
+
+    var largeValue = "v".repeat(RocksScratch.MAX_RETAINED_CAPACITY * 2);
+    var valueBuffer = scratch.value(largeValue, RocksMarshaller.TYPE_STRING);
+    assertEquals(largeValue, RocksMarshaller.TYPE_STRING.unmarshal(valueBuffer));
+    assertNotSame(valueBuffer, scratch.value("v", RocksMarshaller.TYPE_STRING));
+
+    var bytes = scratch.bytes(RocksScratch.MAX_RETAINED_CAPACITY + 1);
+    assertNotSame(bytes, scratch.bytes(RocksScratch.MAX_RETAINED_CAPACITY + 1));
+  }
+
+  @Test
+  public void test_get_largeValue() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      var largeValue = "v".repeat(RocksScratch.MAX_RETAINED_CAPACITY * 2);
+
+      table.put("k1", largeValue);
+      assertEquals(largeValue, table.get("k1"));
+      assertNull(table.get("k2"));
+    }
+  }
+
+  @Test
+  public void test_virtualThread() throws Exception {
+    assertTrue(RocksScratch.isPooled());
+    assertSame(RocksScratch.get(), RocksScratch.get());
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var table = rocksManager.table(null, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      List<Object> results = new ArrayList<>();
+
+      // Virtual threads take the byte[] path and get a scratch of their own
+      var thread = Thread.startVirtualThread(() -> {
+        try {
+          results.add(RocksScratch.isPooled());
+          results.add(RocksScratch.get() == RocksScratch.get());
+
+          table.put("k1", "v1");
+          results.add(table.get("k1"));
+          results.add(table.keyExists("k1"));
+          table.delete("k1");
+          results.add(table.get("k1") == null);
+
+        } catch (Exception ex) {
+          results.add(ex);
+        }
+      });
+      thread.join();
+
+      assertEquals(List.of(false, false, "v1", true, true), results);
+      assertFalse(table.keyExists("k1"));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RocksSharedResourcesTest {
+
+  @TempDir
+  Path tempDir;
+
+  RocksManager open(RocksSharedResources shared, String name) throws Exception {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var dir = this.tempDir.resolve(name);
+
+    var cfOptions = shared.attachCf(RocksUtils.newCfOptions());
+    var descriptors = List.of(RocksUtils.newCfDescriptor(RocksManager.DEFAULT_COLUMN_FAMILY, cfOptions));
+    rocksCloseable.add(descriptors);
+
+    var options = shared.attach(name,
+        RocksUtils.newDBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true), rocksCloseable);
+    rocksCloseable.add(options);
+
+    return RocksManager.open(dir.toString(), options, false, descriptors, rocksCloseable);
+  }
+
+  @Test
+  public void test_leases() throws Exception {
+    try (var shared = new RocksSharedResources(8 << 20, false, 0, 0, 0)) {
+      // Disabled optional resources are not tracked
+      assertEquals(2, shared.resources.closeables.size());
+
+      var db1 = open(shared, "db1");
+      var db2 = open(shared, "db2");
+      assertEquals(3, shared.getRefCount());
+      assertEquals(List.of("db1", "db2"), List.copyOf(shared.getMemoryUsage().keySet()));
+
+      db1.close();
+      assertEquals(2, shared.getRefCount());
+      assertEquals(List.of("db2"), List.copyOf(shared.getMemoryUsage().keySet()));
+
+      db2.close();
+      assertTrue(shared.getMemoryUsage().isEmpty());
+    }
+  }
+
+  @Test
+  public void test_closedOwner_keepsResourcesForAttached() throws Exception {
+    var shared = new RocksSharedResources(8 << 20, true, 4 << 20, 1 << 20, 2);
+    assertEquals(4, shared.resources.closeables.size());
+
+    try (var rocksManager = open(shared, "db1")) {
+      shared.close();
+      assertThrows(IllegalStateException.class, () -> shared.acquire("db2"));
+
+      rocksManager.put("k", RocksUtils.marshal("v"));
+      assertEquals(1, shared.getMemoryUsage().size());
+    }
+    assertEquals(0, shared.getRefCount());
+  }
+
+  @Test
+  public void test_configureDefaultEnv_optIn() throws Exception {
+    try (var shared = new RocksSharedResources(8 << 20, false, 0, 0, 0)) {
+      assertThrows(IllegalStateException.class, () -> shared.configureDefaultEnv());
+    }
+  }
+}
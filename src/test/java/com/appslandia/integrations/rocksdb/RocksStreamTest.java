@@ -0,0 +1,119 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.RocksDBException;
+
+public class RocksStreamTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_consumed_releasesSnapshot() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, 1000);
+
+      var stream = rocksManager.stream(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, null, 4);
+      assertEquals(1L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+
+      // Fully consumed without close
+      assertEquals(1000L, stream.parallel().count());
+      assertEquals(0L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+
+      stream.close();
+      assertEquals(0L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+    }
+  }
+
+  @Test
+  public void test_shortCircuit_releasedOnClose() throws Exception {
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      load(rocksManager, 100);
+
+      try (var stream = rocksManager.stream(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING)) {
+        var keys = stream.limit(3).map(e -> e.key).collect(Collectors.toList());
+
+        assertEquals(3, keys.size());
+        assertEquals(1L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+      }
+      assertEquals(0L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+    }
+  }
+
+  @Test
+  public void test_parallel_disjointSsts() throws Exception {
+    // No compaction, each flush stays a separate SST of a disjoint range
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var cfOptions = RocksUtils.newCfOptions().setDisableAutoCompactions(true);
+    var descriptors = List.of(RocksUtils.newCfDescriptor(RocksManager.DEFAULT_COLUMN_FAMILY, cfOptions));
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir, rocksCloseable, descriptors)) {
+      List<String> expected = new ArrayList<>();
+      for (var sst = 0; sst < 4; sst++) {
+        for (var idx = sst * 500; idx < (sst + 1) * 500; idx++) {
+          rocksManager.put(String.format("k%05d", idx), RocksUtils.marshal("v" + idx));
+          expected.add(String.format("k%05d", idx));
+        }
+        try (var flushOptions = RocksUtils.newFlushOptions().setWaitForFlush(true)) {
+          rocksManager.flush(flushOptions, null);
+        }
+      }
+      var splitKeys = RocksUtils.getSplitKeys(rocksManager.getRocksDB().getLiveFilesMetaData(),
+          RocksManager.DEFAULT_COLUMN_FAMILY, 4);
+      assertEquals(3, splitKeys.size());
+
+      // Complete and in key order
+      try (var stream = rocksManager.stream(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, null, 4)) {
+        var keys = stream.parallel().peek(e -> assertEquals(1L, numSnapshots(rocksManager))).map(e -> e.key)
+            .collect(Collectors.toList());
+
+        assertEquals(expected, keys);
+        assertEquals(0L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+      }
+
+      // The snapshot is held until the last partition is exhausted
+      try (var stream = rocksManager.stream(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, null, 4)) {
+        var spliterator = stream.spliterator();
+        var prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+
+        List<String> keys = new ArrayList<>();
+        prefix.forEachRemaining(e -> keys.add(e.key));
+        assertTrue(keys.size() > 0 && keys.size() < expected.size());
+        assertEquals(1L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+
+        spliterator.forEachRemaining(e -> keys.add(e.key));
+        assertEquals(expected, keys);
+        assertEquals(0L, rocksManager.getLongProperty("rocksdb.num-snapshots"));
+      }
+    }
+  }
+
+  static long numSnapshots(RocksManager rocksManager) {
+    try {
+      return rocksManager.getLongProperty("rocksdb.num-snapshots");
+
+    } catch (RocksDBException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  static void load(RocksManager rocksManager, int count) throws Exception {
+    for (int i = 0; i < count; i++) {
+      rocksManager.put(String.format("k%05d", i), RocksUtils.marshal("v" + i));
+    }
+    try (var flushOptions = RocksUtils.newFlushOptions().setWaitForFlush(true)) {
+      rocksManager.flush(flushOptions, null);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.appslandia.integrations.rocksdb;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.TransactionDBOptions;
+
+/**
+ *
+ * @author Loc Ha
+ *
+ */
+final class RocksTestSupport {
+
+  static RocksManager open(Path dir, String... columnFamilyNames) throws RocksDBException {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+
+    for (String columnFamilyName : columnFamilyNames) {
+      descriptors.add(RocksUtils.newCfDescriptor(columnFamilyName, RocksUtils.newCfOptions()));
+    }
+    return open(dir, rocksCloseable, descriptors);
+  }
+
+  // The default column family is added first if missing, all options are closed with the manager
+  static RocksManager open(Path dir, RocksCloseable rocksCloseable, List<ColumnFamilyDescriptor> descriptors)
+      throws RocksDBException {
+    var allDescriptors = allDescriptors(descriptors);
+    rocksCloseable.add(allDescriptors);
+
+    var options = RocksUtils.newDBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+    rocksCloseable.add(options);
+
+    return RocksManager.open(dir.toString(), options, false, allDescriptors, rocksCloseable);
+  }
+
+  static RocksManager openTran(Path dir, long lockTimeoutMillis) throws RocksDBException {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var allDescriptors = allDescriptors(List.of());
+    rocksCloseable.add(allDescriptors);
+
+    var options = RocksUtils.newDBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+    rocksCloseable.add(options);
+
+    var tranDbOptions = new TransactionDBOptions().setTransactionLockTimeout(lockTimeoutMillis);
+    rocksCloseable.add(tranDbOptions);
+
+    return RocksManager.openTran(dir.toString(), options, tranDbOptions, allDescriptors, rocksCloseable);
+  }
+
+  static RocksManager openOptimisticTran(Path dir) throws RocksDBException {
+    var rocksCloseable = RocksUtils.newRocksCloseable();
+    var allDescriptors = allDescriptors(List.of());
+    rocksCloseable.add(allDescriptors);
+
+    var options = RocksUtils.newDBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+    rocksCloseable.add(options);
+
+    return RocksManager.openOptimisticTran(dir.toString(), options, allDescriptors, rocksCloseable);
+  }
+
+  static List<ColumnFamilyDescriptor> allDescriptors(List<ColumnFamilyDescriptor> descriptors) {
+    List<ColumnFamilyDescriptor> allDescriptors = new ArrayList<>();
+    allDescriptors.add(RocksUtils.newCfDescriptor(RocksManager.DEFAULT_COLUMN_FAMILY, RocksUtils.newCfOptions()));
+
+    for (ColumnFamilyDescriptor descriptor : descriptors) {
+      if (RocksManager.DEFAULT_COLUMN_FAMILY.equals(RocksUtils.getCfDescriptorName(descriptor))) {
+        allDescriptors.set(0, descriptor);
+      } else {
+        allDescriptors.add(descriptor);
+      }
+    }
+    return allDescriptors;
+  }
+}
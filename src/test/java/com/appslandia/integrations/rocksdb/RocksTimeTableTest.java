@@ -0,0 +1,107 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.ColumnFamilyOptions;
+
+public class RocksTimeTableTest {
+
+  static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void test_rotate_expire_reopen() throws Exception {
+    var clock = new MutableClock(T0);
+    var window0 = RocksTimeTable.windowName("events", T0.toEpochMilli());
+
+    try (var rocksManager = RocksTestSupport.open(this.tempDir)) {
+      var timeTable = newTimeTable(rocksManager, clock);
+
+      timeTable.put("k1", "v0");
+      clock.advance(Duration.ofHours(1));
+      timeTable.put("k1", "v1");
+      timeTable.put("k2", "v2");
+
+      assertEquals("v1", timeTable.get("k1"));
+      assertEquals("v0", timeTable.get(T0, "k1"));
+      assertEquals(2, timeTable.getWindowNames().size());
+
+      List<String> scanned = new ArrayList<>();
+      timeTable.scan(null, null, e -> scanned.add(e.key + "=" + e.value));
+      assertEquals(List.of("k1=v0", "k1=v1", "k2=v2"), scanned);
+
+      // Window 0 falls out of the 3-window retention at T0 + 3h
+      var staleTable = rocksManager.table(window0, RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING);
+      clock.advance(Duration.ofHours(2));
+
+      assertEquals(1, timeTable.rotate());
+      assertFalse(rocksManager.hasColumnFamily(window0));
+      assertFalse(rocksManager.cfOptionsMap.containsKey(window0));
+      assertEquals(3, timeTable.getWindowNames().size());
+
+      assertNull(timeTable.get(T0, "k1"));
+      assertEquals("v1", timeTable.get("k1"));
+      assertThrows(IllegalStateException.class, () -> staleTable.get("k1"));
+      assertThrows(IllegalArgumentException.class, () -> timeTable.put(T0, "k1", "late"));
+    }
+
+    // Windows are found again after a restart
+    var cfNames = RocksUtils.listCfNames(this.tempDir.toString());
+    try (var rocksManager = RocksTestSupport.open(this.tempDir, cfNames.toArray(String[]::new))) {
+      var timeTable = newTimeTable(rocksManager, clock);
+
+      assertEquals(3, timeTable.getWindowNames().size());
+      assertEquals("v1", timeTable.get("k1"));
+      assertEquals("v2", timeTable.get("k2"));
+    }
+  }
+
+  static RocksTimeTable<String, String> newTimeTable(RocksManager rocksManager, Clock clock) {
+    return new RocksTimeTable<>(rocksManager, "events", RocksTimeTable.HOURLY, 3, RocksMarshaller.TYPE_STRING,
+        RocksMarshaller.TYPE_STRING, ColumnFamilyOptions::new, null, clock);
+  }
+
+  static class MutableClock extends Clock {
+
+    Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+      this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+
+public class RocksTranExecutorTest {
+
+  @TempDir
+  Path tempDir;
+
+  static byte[] bytes(String value) {
+    return RocksUtils.marshal(value);
+  }
+
+  @Test
+  public void test_busy_retried() throws Exception {
+    try (var rocksManager = RocksTestSupport.openOptimisticTran(this.tempDir);
+        var executor = rocksManager.newTranExecutor(null, 3, 0, 0)) {
+      var attempts = new AtomicInteger();
+
+      var result = executor.execute(tran -> {
+        tran.put("k1", bytes("tran"));
+
+        // A write outside the transaction conflicts with the first attempt
+        if (attempts.incrementAndGet() == 1) {
+          rocksManager.put("k1", bytes("outside"));
+        }
+        return attempts.get();
+      });
+
+      assertEquals(2, (int) result);
+      assertArrayEquals(bytes("tran"), rocksManager.get("k1"));
+      assertEquals(1, executor.getCommitCount());
+      assertEquals(1, executor.getConflictCount());
+      assertEquals(1, executor.getRetryCount());
+      assertEquals(0, executor.getExhaustedCount());
+    }
+  }
+
+  @Test
+  public void test_retries_exhausted() throws Exception {
+    try (var rocksManager = RocksTestSupport.openOptimisticTran(this.tempDir);
+        var executor = rocksManager.newTranExecutor(null, 2, 0, 0)) {
+      var attempts = new AtomicInteger();
+
+      var ex = assertThrows(RocksDBException.class, () -> executor.run(tran -> {
+        attempts.incrementAndGet();
+        tran.put("k1", bytes("tran"));
+        rocksManager.put("k1", bytes("outside"));
+      }));
+
+      assertEquals(Status.Code.Busy, ex.getStatus().getCode());
+      assertEquals(3, attempts.get());
+      assertArrayEquals(bytes("outside"), rocksManager.get("k1"));
+      assertEquals(0, executor.getCommitCount());
+      assertEquals(3, executor.getConflictCount());
+      assertEquals(2, executor.getRetryCount());
+      assertEquals(1, executor.getExhaustedCount());
+    }
+  }
+
+  @Test
+  public void test_lockTimeout_retried() throws Exception {
+    try (var rocksManager = RocksTestSupport.openTran(this.tempDir, 50);
+        var executor = rocksManager.newTranExecutor(null, 3, 0, 0)) {
+      var holder = rocksManager.getTranDB().beginTransaction(rocksManager.writeOptions);
+      try {
+        holder.getForUpdate(rocksManager.readOptions, bytes("k1"), true);
+        var attempts = new AtomicInteger();
+
+        // The first attempt times out waiting for the lock, the holder is gone by the second
+        executor.run(tran -> {
+          if (attempts.incrementAndGet() == 2) {
+            holder.rollback();
+          }
+          tran.getForUpdate("k1");
+          tran.put("k1", bytes("tran"));
+        });
+
+        assertEquals(2, attempts.get());
+        assertArrayEquals(bytes("tran"), rocksManager.get("k1"));
+        assertEquals(1, executor.getRetryCount());
+
+      } finally {
+        holder.close();
+      }
+    }
+  }
+
+  @Test
+  public void test_runtimeException_rolledBack() throws Exception {
+    try (var rocksManager = RocksTestSupport.openOptimisticTran(this.tempDir);
+        var executor = rocksManager.newTranExecutor()) {
+
+      var ex = assertThrows(IllegalStateException.class, () -> executor.run(tran -> {
+        tran.put("k1", bytes("tran"));
+        throw new IllegalStateException("Failed.");
+      }));
+
+      assertEquals("Failed.", ex.getMessage());
+      assertNull(rocksManager.get("k1"));
+      assertEquals(1, executor.getFailureCount());
+      assertEquals(0, executor.getRetryCount());
+
+      // The rolled back transaction is reused
+      executor.run(tran -> tran.put("k1", bytes("v1")));
+      assertArrayEquals(bytes("v1"), rocksManager.get("k1"));
+      assertEquals(1, executor.getCommitCount());
+    }
+  }
+
+  @Test
+  public void test_commit_invalidatesCache() throws Exception {
+    try (var rocksManager = RocksTestSupport.openOptimisticTran(this.tempDir);
+        var executor = rocksManager.newTranExecutor()) {
+      var cache = rocksManager.enableCache(RocksManager.DEFAULT_COLUMN_FAMILY, 1024 * 1024, false);
+
+      rocksManager.put("k1", bytes("v1"));
+      assertArrayEquals(bytes("v1"), rocksManager.get("k1"));
+      assertTrue(cache.contains(bytes("k1")));
+
+      executor.run(tran -> tran.put("k1", bytes("v2")));
+
+      assertFalse(cache.contains(bytes("k1")));
+      assertArrayEquals(bytes("v2"), rocksManager.get("k1"));
+    }
+  }
+}
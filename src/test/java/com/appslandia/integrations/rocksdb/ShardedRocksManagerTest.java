@@ -0,0 +1,125 @@
+package com.appslandia.integrations.rocksdb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.ReadOptions;
+
+public class ShardedRocksManagerTest {
+
+  @TempDir
+  Path tempDir;
+
+  ShardedRocksManager open(int shardCount) throws Exception {
+    List<String> shardDirs = new ArrayList<>();
+    for (int i = 0; i < shardCount; i++) {
+      shardDirs.add(this.tempDir.resolve("shard" + i).toString());
+    }
+    return ShardedRocksManager.open(shardDirs, RocksShardRouter.HASH, dir -> RocksTestSupport.open(Path.of(dir)));
+  }
+
+  static String key(int i) {
+    return String.format("k%04d", i);
+  }
+
+  @Test
+  public void test_mergeIterator_ordering() throws Exception {
+    try (var sharded = open(4)) {
+      // Inserted in reverse order, spread over every shard
+      for (int i = 499; i >= 0; i--) {
+        sharded.put(key(i), RocksUtils.marshal("v" + i));
+      }
+      for (int idx = 0; idx < 4; idx++) {
+        assertTrue(sharded.getShard(idx).getLongProperty("rocksdb.estimate-num-keys") > 0);
+      }
+
+      List<String> keys = new ArrayList<>();
+      try (var iterator = sharded.newRocksEntryIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING)) {
+        while (iterator.hasNext()) {
+          var entry = iterator.next();
+          assertEquals("v" + Integer.parseInt(entry.key.substring(1)), entry.value);
+          keys.add(entry.key);
+        }
+      }
+      assertEquals(500, keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        assertEquals(key(i), keys.get(i));
+      }
+
+      List<String> range = new ArrayList<>();
+      try (var iterator = sharded.newRangeIterator(RocksMarshaller.TYPE_STRING, RocksMarshaller.TYPE_STRING, key(100),
+          key(110))) {
+        iterator.forEachRemaining(e -> range.add(e.key));
+      }
+      assertEquals(10, range.size());
+      assertEquals(key(100), range.get(0));
+      assertEquals(key(109), range.get(9));
+    }
+  }
+
+  @Test
+  public void test_multiGet_keepsKeyOrder() throws Exception {
+    try (var sharded = open(3)) {
+      for (int i = 0; i < 200; i += 2) {
+        sharded.put(key(i), RocksUtils.marshal("v" + i));
+      }
+      List<String> keys = new ArrayList<>();
+      for (int i = 199; i >= 0; i--) {
+        keys.add(key(i));
+      }
+      var values = sharded.multiGet(keys);
+
+      assertEquals(200, values.size());
+      for (int pos = 0; pos < keys.size(); pos++) {
+        var i = 199 - pos;
+        if (i % 2 == 0) {
+          assertArrayEquals(RocksUtils.marshal("v" + i), values.get(pos));
+        } else {
+          assertNull(values.get(pos));
+        }
+      }
+      assertEquals(0, sharded.multiGet(List.of()).size());
+    }
+  }
+
+  @Test
+  public void test_shardSnapshots() throws Exception {
+    try (var sharded = open(2)) {
+      for (int i = 0; i < 20; i++) {
+        sharded.put(key(i), RocksUtils.marshal("old"));
+      }
+      List<ReadOptions> shardOptions = new ArrayList<>();
+      for (RocksManager shard : sharded.getShards()) {
+        shardOptions.add(new ReadOptions().setSnapshot(shard.getRocksDB().getSnapshot()));
+      }
+      try {
+        for (int i = 0; i < 20; i++) {
+          sharded.put(key(i), RocksUtils.marshal("new"));
+        }
+        var keys = RocksUtils.marshal(Arrays.asList(key(0), key(7), key(19)));
+        for (byte[] value : sharded.multiGetAsList(keys, null, shardOptions)) {
+          assertEquals("old", RocksUtils.unmarshal(value));
+        }
+
+        // A snapshot of one shard can't be shared
+        assertThrows(IllegalArgumentException.class, () -> sharded.multiGetAsList(keys, null, shardOptions.get(0)));
+
+      } finally {
+        for (int idx = 0; idx < shardOptions.size(); idx++) {
+          sharded.getShard(idx).getRocksDB().releaseSnapshot(shardOptions.get(idx).snapshot());
+          shardOptions.get(idx).close();
+        }
+      }
+    }
+  }
+}